@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ConnectionBuilder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueLoader;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.SyntheticFlights;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Latency of the indexed search engine by catalogue size, route skew and filter combination; run with the {@code gc}
+ * profiler by the {@code jmh} Gradle task to also report the allocation per search.
+ * <p>
+ * Searched routes are those of randomly picked catalogue flights, so busy routes are searched more often, and the
+ * filters of each query are derived from the picked flight, so every query has at least one result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FlightSearchBenchmark {
+
+    private static final int QUERIES = 1024; // power of two, cycled through by the benchmark
+
+    @Param({ "10000", "100000", "1000000" })
+    int catalogueSize;
+
+    @Param({ "0", "1" })
+    double routeSkew;
+
+    @Param({ "ROUTE", "DEPARTURE_DAY", "FARE_CLASS", "PRICE_RANGE", "PRICE_ORDER", "ALL" })
+    Filter filter;
+
+    private FlightSearchService searchService;
+    private FlightSearchCriteria[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<FlightItem> flights = new SyntheticFlights(catalogueSize, 42, 200, routeSkew, 0.2).generate();
+        FlightCatalogue catalogue = FlightCatalogue.of(flights);
+        FlightCatalogueLoader loader = new FlightCatalogueLoader("", SyntheticFlights.NONE) {
+            @Override
+            public FlightCatalogue load() {
+                return catalogue;
+            }
+        };
+        searchService = new IndexedFlightSearchService(
+            new FlightCatalogueHolder(loader),
+            AirportGroups.NONE,
+            new ConnectionBuilder(Duration.ofMinutes(45), Duration.ofHours(12)),
+            false
+        );
+
+        SplittableRandom random = new SplittableRandom(7);
+        queries = new FlightSearchCriteria[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = filter.criteria(flights.get(random.nextInt(flights.size())));
+        }
+    }
+
+    @Benchmark
+    public List<FlightItem> search() {
+        return searchService.getFlightsFromSearch(queries[next++ & (QUERIES - 1)]);
+    }
+
+    public enum Filter {
+        ROUTE,
+        DEPARTURE_DAY,
+        FARE_CLASS,
+        PRICE_RANGE,
+        PRICE_ORDER,
+        ALL;
+
+        FlightSearchCriteria criteria(final FlightItem flight) {
+            FlightSearchCriteria.FlightSearchCriteriaBuilder criteria = FlightSearchCriteria
+                .builder()
+                .origin(flight.origin())
+                .destination(flight.destination());
+
+            if (this == DEPARTURE_DAY || this == ALL) {
+                Instant day = Instant.parse(flight.departureDateTime()).truncatedTo(ChronoUnit.DAYS);
+                criteria.departingWithin(day, day.plus(1, ChronoUnit.DAYS));
+            }
+            if (this == FARE_CLASS || this == ALL) {
+                criteria.fareClasses(Set.of(flight.fareClass()));
+            }
+            if (this == PRICE_RANGE || this == ALL) {
+                criteria.minPrice(flight.price() / 2).maxPrice(flight.price());
+            }
+            if (this == PRICE_ORDER || this == ALL) {
+                criteria.sortBy(FlightSortKey.PRICE);
+            }
+            return criteria.build();
+        }
+    }
+}
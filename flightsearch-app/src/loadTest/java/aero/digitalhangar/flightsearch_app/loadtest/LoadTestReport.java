@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.loadtest;
+
+import java.util.List;
+
+/**
+ * Machine-readable result of a load test run, written as JSON to compare runs of different commits.
+ *
+ * @param commit           git commit the application was built from; {@code null} if unknown
+ * @param profiles         active profiles of the application
+ * @param catalogueFlights number of flights of the searched catalogue
+ * @param durationSeconds  measured duration of each scenario
+ * @param scenarios        results by endpoint and arrival rate
+ */
+public record LoadTestReport(
+    String commit,
+    List<String> profiles,
+    int catalogueFlights,
+    int durationSeconds,
+    List<Scenario> scenarios
+) {
+    /**
+     * @param endpoint    request path template
+     * @param arrivalRate requests started per second
+     * @param requests    completed requests
+     * @param errors      requests failed or answered with an unexpected status
+     * @param throughput  completed requests per second
+     * @param latency     response times measured from the scheduled start of the requests
+     */
+    public record Scenario(
+        String endpoint,
+        int arrivalRate,
+        long requests,
+        long errors,
+        double throughput,
+        Latency latency
+    ) {}
+
+    /**
+     * Latency percentiles in microseconds.
+     */
+    public record Latency(long p50, long p90, long p99, long p999, long max) {}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.loadtest;
+
+import aero.digitalhangar.flightsearch_app.Application;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.SyntheticFlights;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Command line tool booting the application on a random port with a synthetic catalogue and driving open-model load
+ * against its endpoints, run by the {@code loadTest} Gradle task.
+ * <p>
+ * Every endpoint is first warmed up at the lowest arrival rate, then measured at each arrival rate for the given
+ * duration. Searched routes are those of randomly picked catalogue flights. Arguments after the fourth one are passed
+ * to the application, e.g. {@code --flightsearch.search.cache.enabled=false}. The {@code synthetic} profile is included
+ * next to the configured active profiles, which are recorded in the report.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LoadTestRunner {
+
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final int SEARCHED_FLIGHTS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            throw new IllegalArgumentException(
+                "Usage: LoadTestRunner <report file> <arrival rates> <duration seconds> <catalogue flights> [app args]"
+            );
+        }
+
+        Path reportFile = Path.of(args[0]).toAbsolutePath();
+        int[] arrivalRates = Arrays.stream(args[1].split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int durationSeconds = Integer.parseInt(args[2]);
+        String[] applicationArgs = Stream.concat(
+            Stream.of(
+                "--spring.profiles.include=synthetic",
+                "--server.port=0",
+                "--flightsearch.catalogue.synthetic.flights=" + args[3]
+            ),
+            Arrays.stream(args, 4, args.length)
+        ).toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(Application.class, applicationArgs)) {
+            String baseUrl =
+                "http://localhost:" +
+                ((WebServerApplicationContext) context).getWebServer().getPort() +
+                context.getEnvironment().getProperty("server.servlet.context-path", "");
+            List<FlightItem> searchedFlights = searchedFlights(context.getBean(SyntheticFlights.class));
+
+            Map<String, LongFunction<URI>> endpoints = new LinkedHashMap<>();
+            endpoints.put("/flights", i -> {
+                FlightItem flight = searchedFlights.get((int) (i % searchedFlights.size()));
+                return URI.create(
+                    baseUrl + "/flights?origin=" + flight.origin() + "&destination=" + flight.destination()
+                );
+            });
+            endpoints.put("/bookings/{bookingId}/services", i -> URI.create(baseUrl + "/bookings/ABCDEF/services"));
+
+            OpenModelLoad load = new OpenModelLoad();
+            List<LoadTestReport.Scenario> scenarios = new ArrayList<>();
+            endpoints.forEach((endpoint, requests) -> {
+                load.run(endpoint, requests, Arrays.stream(arrivalRates).min().orElseThrow(), WARM_UP);
+                for (int arrivalRate : arrivalRates) {
+                    LoadTestReport.Scenario scenario = load.run(
+                        endpoint,
+                        requests,
+                        arrivalRate,
+                        Duration.ofSeconds(durationSeconds)
+                    );
+                    System.out.printf(
+                        "%s at %d/s: %.1f/s, p50 %d us, p99 %d us, p99.9 %d us, %d errors%n",
+                        endpoint,
+                        arrivalRate,
+                        scenario.throughput(),
+                        scenario.latency().p50(),
+                        scenario.latency().p99(),
+                        scenario.latency().p999(),
+                        scenario.errors()
+                    );
+                    scenarios.add(scenario);
+                }
+            });
+
+            GitProperties gitProperties = context.getBeanProvider(GitProperties.class).getIfAvailable();
+            LoadTestReport report = new LoadTestReport(
+                gitProperties == null ? null : gitProperties.getCommitId(),
+                List.of(context.getEnvironment().getActiveProfiles()),
+                context.getBean(FlightCatalogueHolder.class).current().catalogue().size(),
+                durationSeconds,
+                scenarios
+            );
+            Files.createDirectories(reportFile.getParent());
+            context
+                .getBean(ObjectMapper.class)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(reportFile.toFile(), report);
+
+            System.out.printf("Load test report written to %s%n", reportFile);
+        }
+    }
+
+    private static List<FlightItem> searchedFlights(final SyntheticFlights syntheticFlights) {
+        List<FlightItem> flights = syntheticFlights.generate();
+        SplittableRandom random = new SplittableRandom(syntheticFlights.seed());
+
+        return random.ints(SEARCHED_FLIGHTS, 0, flights.size()).mapToObj(flights::get).toList();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Starts requests at a fixed arrival rate regardless of how fast they are answered (open model), each on its own
+ * virtual thread. Latencies are measured from the scheduled start of a request rather than from its actual start, so
+ * requests waiting behind a stalled server are recorded with their waiting time (no coordinated omission).
+ */
+final class OpenModelLoad {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * @param endpoint    path template reported for the scenario
+     * @param requests    URI of the n-th request
+     * @param arrivalRate requests started per second
+     * @param duration    time during which requests are started
+     */
+    LoadTestReport.Scenario run(
+        final String endpoint,
+        final LongFunction<URI> requests,
+        final int arrivalRate,
+        final Duration duration
+    ) {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long count = arrivalRate * duration.toSeconds();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < count; i++) {
+                long scheduled = start + i * TimeUnit.SECONDS.toNanos(1) / arrivalRate;
+                for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                HttpRequest request = HttpRequest.newBuilder(requests.apply(i)).timeout(REQUEST_TIMEOUT).build();
+                executor.execute(() -> {
+                    if (!send(request)) {
+                        errors.increment();
+                    }
+                    latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                });
+            }
+        } // waits for the outstanding requests
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        return new LoadTestReport.Scenario(
+            endpoint,
+            arrivalRate,
+            latencies.getTotalCount(),
+            errors.sum(),
+            Math.round(latencies.getTotalCount() / elapsedSeconds * 10) / 10.0,
+            new LoadTestReport.Latency(
+                latencies.getValueAtPercentile(50),
+                latencies.getValueAtPercentile(90),
+                latencies.getValueAtPercentile(99),
+                latencies.getValueAtPercentile(99.9),
+                latencies.getMaxValue()
+            )
+        );
+    }
+
+    /**
+     * @return whether the request was answered with a success status
+     */
+    private boolean send(final HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.concurrent;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Tasks of the application task executor, e.g. the queries of a {@code /flights/batch} request, run within the tracing
+ * context of the submitting request, so their logs and outbound calls keep its call ID. This holds for the pooled
+ * executor as well as for the executor starting a virtual thread per task with
+ * {@code spring.threads.virtual.enabled}.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -60,22 +60,25 @@ public class GenericExceptionHandler {
 
     @ExceptionHandler({ ConstraintViolationException.class })
     public ResponseEntity<ErrorMessage> handleConstraintViolation(final ConstraintViolationException ex) {
-        return ResponseEntity
-            .status(HttpStatus.BAD_REQUEST)
-            .body(
-                ErrorMessage
-                    .builder()
-                    .processingErrors(
-                        (
-                            ex
-                                .getConstraintViolations()
-                                .stream()
-                                .map(constraintViolation -> prepareErrorMessage(constraintViolation, ex))
-                                .collect(Collectors.toSet())
-                        )
-                    )
-                    .build()
-            );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(toErrorMessage(ex));
+    }
+
+    /**
+     * @return error message with a processing error per violated constraint, as answered for an invalid request
+     */
+    public static ErrorMessage toErrorMessage(final ConstraintViolationException ex) {
+        return ErrorMessage
+            .builder()
+            .processingErrors(
+                (
+                    ex
+                        .getConstraintViolations()
+                        .stream()
+                        .map(constraintViolation -> prepareErrorMessage(constraintViolation, ex))
+                        .collect(Collectors.toSet())
+                )
+            )
+            .build();
     }
 
     @ExceptionHandler(IllegalStateException.class)
@@ -132,7 +135,7 @@ public class GenericExceptionHandler {
             .body(ProcessingError.builder(UniqueError.INTERNAL_ERROR).build().toErrorMessage());
     }
 
-    private ProcessingError prepareErrorMessage(
+    private static ProcessingError prepareErrorMessage(
         final ConstraintViolation<?> constraintViolation,
         final ConstraintViolationException constraintViolationException
     ) {
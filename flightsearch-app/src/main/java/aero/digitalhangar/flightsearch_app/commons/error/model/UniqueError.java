@@ -46,7 +46,9 @@ public enum UniqueError implements ErrorId {
     INTERNAL_ERROR("50000", "An unexpected error occurred"),
 
     UNDEFINED_INTERNAL_ERROR("50099", "Undefined error"),
-    NOT_IMPLEMENTED("50100", "Operation for this request has not been implemented yet");
+    NOT_IMPLEMENTED("50100", "Operation for this request has not been implemented yet"),
+
+    SERVICE_UNAVAILABLE("50300", "Service temporarily unavailable");
 
     @Getter
     private final String code;
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ETags {
+
+    private static final int TAG_BYTES = 16;
+
+    /**
+     * @return quoted strong entity tag derived from the given representation identity, e.g. a data version and a query
+     */
+    public static String strong(final String identity) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+
+            return '"' + HexFormat.of().formatHex(digest, 0, TAG_BYTES) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}, see RFC 9110 section 13.1.2.
+     *
+     * @param ifNoneMatch value of the {@code If-None-Match} header(s), comma separated; {@code null} if not present
+     * @return whether the given tag is listed, or any tag is accepted by {@code *}, i.e. the client holds the current
+     *     representation
+     */
+    public static boolean isNotModified(final String ifNoneMatch, final String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if ("*".equals(tag) || opaque(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(final String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
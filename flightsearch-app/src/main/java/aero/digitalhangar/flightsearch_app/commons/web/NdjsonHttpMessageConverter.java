@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes newline delimited JSON: each element of a {@link Stream} or {@link Iterable} body on its own line while it is
+ * produced, an {@link ErrorMessage} of a failed streamed request as a single line. The first line is flushed right
+ * away and the rest leaves through the output buffers, so neither the first byte nor the heap waits for the whole
+ * result.
+ * <p>
+ * Registered after the JSON converters by {@link WebMvcConfig}, it only answers requests explicitly accepting
+ * {@code application/x-ndjson}, and never with other bodies, so endpoints answering single documents stay JSON only.
+ */
+public class NdjsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonHttpMessageConverter(final ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return (
+            Stream.class.isAssignableFrom(clazz) ||
+            Iterable.class.isAssignableFrom(clazz) ||
+            ErrorMessage.class.isAssignableFrom(clazz)
+        );
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(final Class<?> clazz, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading NDJSON is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(final Object body, final HttpOutputMessage outputMessage) throws IOException {
+        // lines are flushed explicitly, not after every value
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (
+            JsonGenerator generator = objectMapper
+                .getFactory()
+                .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))
+        ) {
+            generator.setRootValueSeparator(null);
+
+            if (body instanceof Stream<?> stream) {
+                try (stream) {
+                    writeLines(writer, generator, stream.iterator());
+                }
+            } else if (body instanceof Iterable<?> iterable) {
+                writeLines(writer, generator, iterable.iterator());
+            } else {
+                writeLine(writer, generator, body);
+            }
+        }
+    }
+
+    private static void writeLines(final ObjectWriter writer, final JsonGenerator generator, final Iterator<?> elements)
+        throws IOException {
+        if (elements.hasNext()) {
+            writeLine(writer, generator, elements.next());
+            generator.flush();
+        }
+        while (elements.hasNext()) {
+            writeLine(writer, generator, elements.next());
+        }
+    }
+
+    private static void writeLine(final ObjectWriter writer, final JsonGenerator generator, final Object value)
+        throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+}
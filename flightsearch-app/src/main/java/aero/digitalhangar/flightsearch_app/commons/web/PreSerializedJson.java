@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+
+/**
+ * Response body keeping its own JSON representation, written as is by {@link PreSerializedJsonHttpMessageConverter}
+ * instead of being serialized on every response.
+ */
+public interface PreSerializedJson {
+    /**
+     * @return UTF-8 JSON of the body, serialized with the given mapper on first use; must not be modified
+     */
+    byte[] json(ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * @return strong entity tag of the JSON representation, quoted
+     */
+    String eTag();
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Copies the JSON kept by a {@link PreSerializedJson} body to the response and tags it with its entity tag.
+ * <p>
+ * Registered before the JSON converters by {@link WebMvcConfig}, so that such bodies skip Jackson.
+ */
+public class PreSerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<PreSerializedJson> {
+
+    private final ObjectMapper objectMapper;
+
+    public PreSerializedJsonHttpMessageConverter(final ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return PreSerializedJson.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreSerializedJson readInternal(
+        final Class<? extends PreSerializedJson> clazz,
+        final HttpInputMessage inputMessage
+    ) {
+        throw new HttpMessageNotReadableException("Reading pre-serialized JSON is not supported", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(final PreSerializedJson body, final MediaType contentType) throws IOException {
+        return (long) body.json(objectMapper).length;
+    }
+
+    @Override
+    protected void writeInternal(final PreSerializedJson body, final HttpOutputMessage outputMessage)
+        throws IOException {
+        if (outputMessage.getHeaders().getETag() == null) {
+            outputMessage.getHeaders().setETag(body.eTag());
+        }
+        outputMessage.getBody().write(body.json(objectMapper));
+    }
+}
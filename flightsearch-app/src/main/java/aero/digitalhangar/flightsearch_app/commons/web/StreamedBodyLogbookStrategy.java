@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import java.io.IOException;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Strategy;
+
+/**
+ * Logs requests and responses with their bodies, except the bodies of responses to requests accepting
+ * {@code application/x-ndjson}. Logbook tees the body of a logged response into a buffer while it is written, so a
+ * streamed response would otherwise be held in heap as a whole; its status and headers are still logged.
+ * <p>
+ * The decision is taken before the response is written, so it relies on the {@code Accept} header selecting the
+ * {@link NdjsonHttpMessageConverter}. Replaces the strategy configured with {@code logbook.strategy}.
+ */
+@Component
+public class StreamedBodyLogbookStrategy implements Strategy {
+
+    @Override
+    public HttpResponse process(final HttpRequest request, final HttpResponse response) throws IOException {
+        return acceptsNdjson(request.getHeaders().get(HttpHeaders.ACCEPT))
+            ? response.withoutBody()
+            : response.withBody();
+    }
+
+    private static boolean acceptsNdjson(final List<String> accept) {
+        if (accept == null) {
+            return false;
+        }
+
+        try {
+            return MediaType
+                .parseMediaTypes(accept)
+                .stream()
+                .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
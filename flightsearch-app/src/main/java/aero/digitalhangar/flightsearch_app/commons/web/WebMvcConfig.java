@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@RequiredArgsConstructor
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        // first, so that pre-serialized bodies skip Jackson
+        converters.addFirst(new PreSerializedJsonHttpMessageConverter(objectMapper));
+        // last, so that clients accepting any media type keep receiving JSON
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web.client;
+
+import aero.digitalhangar.flightsearch_app.commons.web.header.HeaderProvider;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Blocking client for calls to external services, sending the middleware headers of {@link HeaderProvider} with every
+ * request.
+ * <p>
+ * Blocking is cheap on virtual threads, so with {@code spring.threads.virtual.enabled} the number of concurrent calls
+ * is no longer bounded by the request threads but by the connection pool; its size is configured accordingly. The pool
+ * of the Apache client guards its state with {@code java.util.concurrent} locks, so waiting for a connection does not
+ * pin the carrier thread.
+ */
+@Configuration
+public class RestClientConfig {
+
+    public static final String EXTERNAL_REST_CLIENT = "externalRestClient";
+
+    @Bean(EXTERNAL_REST_CLIENT)
+    public RestClient externalRestClient(
+        final RestClient.Builder builder,
+        final HeaderProvider headerProvider,
+        final CloseableHttpClient externalHttpClient
+    ) {
+        return builder
+            .requestFactory(new HttpComponentsClientHttpRequestFactory(externalHttpClient))
+            .requestInitializer(request -> request.getHeaders().addAll(headerProvider.create()))
+            .build();
+    }
+
+    @Bean
+    public CloseableHttpClient externalHttpClient(
+        final @Value("${external.services.common.timeout.connect}") long connectTimeoutMillis,
+        final @Value("${external.services.common.timeout.read}") long readTimeoutMillis,
+        final @Value("${external.services.common.max-connections}") int maxConnections
+    ) {
+        ConnectionConfig connectionConfig = ConnectionConfig
+            .custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+            .build();
+
+        return HttpClients
+            .custom()
+            .setConnectionManager(
+                PoolingHttpClientConnectionManagerBuilder
+                    .create()
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnections)
+                    .build()
+            )
+            .build();
+    }
+}
@@ -16,6 +16,7 @@ public final class HeaderConstants {
     public static final String RESPONSE_TIME = "Response-Time";
     public static final String VERSION = "version";
     public static final String ENVIRONMENT = "environment";
+    public static final String NEXT_CURSOR = "Next-Cursor";
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class Middleware {
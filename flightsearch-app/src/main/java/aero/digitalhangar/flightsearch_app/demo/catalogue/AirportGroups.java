@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Metropolitan area and airport group codes (e.g. {@code LON}, {@code NYC}) searched as all of their airports.
+ *
+ * @param airportGroups airport codes per group code; a code without a group stands for itself
+ */
+@ConfigurationProperties("flightsearch.search")
+public record AirportGroups(Map<String, List<String>> airportGroups) {
+    public static final AirportGroups NONE = new AirportGroups(Map.of());
+
+    public AirportGroups {
+        airportGroups = airportGroups == null
+            ? Map.of()
+            : airportGroups
+                .entrySet()
+                .stream()
+                .collect(
+                    Collectors.toUnmodifiableMap(
+                        group -> normalize(group.getKey()),
+                        group -> group.getValue().stream().map(AirportGroups::normalize).distinct().toList()
+                    )
+                );
+    }
+
+    /**
+     * @return normalized airports of the given group or airport code; empty when no code is given
+     */
+    public List<String> airports(final String code) {
+        if (code == null) {
+            return List.of();
+        }
+
+        String normalizedCode = normalize(code);
+        return airportGroups.getOrDefault(normalizedCode, List.of(normalizedCode));
+    }
+
+    /**
+     * @return routes from every airport of the origin to every airport of the destination, except round trips
+     */
+    public List<RouteKey> routes(final String origin, final String destination) {
+        List<RouteKey> routes = new ArrayList<>();
+        for (String originAirport : airports(origin)) {
+            for (String destinationAirport : airports(destination)) {
+                if (!originAirport.equals(destinationAirport)) {
+                    routes.add(new RouteKey(originAirport, destinationAirport));
+                }
+            }
+        }
+
+        return routes;
+    }
+
+    private static String normalize(final String airportCode) {
+        return airportCode.trim().toUpperCase(Locale.ROOT);
+    }
+}
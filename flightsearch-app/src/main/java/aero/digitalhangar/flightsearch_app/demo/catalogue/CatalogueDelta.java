@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batch of catalogue changes applied by {@link FlightCatalogue#apply(CatalogueDelta)}.
+ *
+ * @param upserts flights replacing the flights with the same id, on whichever route they are, or added as new ones;
+ *                the last upsert of an id wins
+ * @param deletes ids of the flights to remove, unknown ids are ignored; applied after the upserts
+ */
+public record CatalogueDelta(List<FlightItem> upserts, Set<String> deletes) {
+    public CatalogueDelta {
+        upserts = upserts == null ? List.of() : List.copyOf(upserts);
+        deletes = deletes == null ? Set.of() : Set.copyOf(deletes);
+    }
+
+    public static CatalogueDelta upsert(final FlightItem... flights) {
+        return new CatalogueDelta(List.of(flights), Set.of());
+    }
+
+    public static CatalogueDelta delete(final String... ids) {
+        return new CatalogueDelta(List.of(), Set.of(ids));
+    }
+}
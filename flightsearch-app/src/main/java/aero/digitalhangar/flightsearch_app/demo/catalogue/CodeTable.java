@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary assigning compact {@code int} codes to airport, airline and currency codes.
+ * <p>
+ * Encoding happens while loading the catalogue (off the request path); decoding and lookups are lock-free and return
+ * one canonical {@link String} instance per code.
+ */
+public final class CodeTable {
+
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    public synchronized int encode(final String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current; // publishes the new value before the code becomes visible
+        codes.put(value, size);
+
+        return size++;
+    }
+
+    /**
+     * @return code of given value; {@link #UNKNOWN} when the value is not present in any loaded flight
+     */
+    public int find(final String value) {
+        return value == null ? UNKNOWN : codes.getOrDefault(value, UNKNOWN);
+    }
+
+    public String decode(final int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
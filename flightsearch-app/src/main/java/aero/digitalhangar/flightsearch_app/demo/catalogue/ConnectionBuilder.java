@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Composes one- and two-stop itineraries from direct legs of the catalogue at query time.
+ * <p>
+ * Route buckets serve as departure-sorted adjacency lists: first legs are walked in departure order across all routes
+ * leaving the origin, onward legs are located with a binary search from the arrival plus the minimum connection time
+ * and scanned up to the maximum connection time. For each first leg only the best itinerary in the searched order is
+ * kept, ties resolved by the earlier arrival, then by the lower price. Partial itineraries are pruned by the arrival
+ * and price they already reached, once no completion can beat the best itinerary of the first leg or, with a full
+ * selection, the last selected one. Only itineraries passing the fare class and price filters and following the
+ * cursor compete for the best one, so a first leg is kept whenever any of its itineraries passes them. Legs must share
+ * the currency, pre-built segmented flights of the catalogue are never used as legs.
+ */
+@Component
+public class ConnectionBuilder {
+
+    private static final long ANY_ARRIVAL = Long.MIN_VALUE;
+
+    private final long minimumConnectionSeconds;
+    private final long maximumConnectionSeconds;
+
+    public ConnectionBuilder(
+        final @Value("${flightsearch.search.connections.minimum-connection-time:45m}") Duration minimumConnectionTime,
+        final @Value("${flightsearch.search.connections.maximum-connection-time:12h}") Duration maximumConnectionTime
+    ) {
+        this.minimumConnectionSeconds = minimumConnectionTime.toSeconds();
+        this.maximumConnectionSeconds = maximumConnectionTime.toSeconds();
+    }
+
+    /**
+     * @return at most {@link FlightSearchCriteria#limit()} segmented itineraries, in the order of the criteria
+     */
+    public List<ScheduledFlight> connections(final FlightCatalogue catalogue, final FlightSearchCriteria criteria) {
+        if (criteria.origin() == null || criteria.destination() == null) {
+            return List.of();
+        }
+
+        if (criteria.arrival() != null && criteria.arrival().getNano() != 0) {
+            return List.of(); // arrivals are kept with a one-second precision
+        }
+
+        RouteKey searchedRoute = RouteKey.of(criteria.origin(), criteria.destination());
+        RouteNetwork network = catalogue.network();
+        int origin = network.airport(searchedRoute.origin());
+        int destination = network.airport(searchedRoute.destination());
+        if (origin == CodeTable.UNKNOWN || destination == CodeTable.UNKNOWN) {
+            return List.of();
+        }
+
+        long arrival = criteria.arrival() == null ? ANY_ARRIVAL : criteria.arrival().getEpochSecond();
+
+        FlightCursor after = criteria.after();
+        FlightSortKey sortKey = criteria.sortBy();
+        boolean departureOrder = sortKey == FlightSortKey.DEPARTURE;
+
+        PriorityQueue<Cursor> firstLegs = new PriorityQueue<>(Comparator.comparingLong(Cursor::departure));
+        int[] stops = network.destinations(origin);
+        for (int position = 0; position < stops.length; position++) {
+            if (stops[position] != destination) {
+                RouteBucket bucket = network.outgoingRoute(origin, position);
+                int from = bucket.lowerBound(criteria.departureFrom());
+                if (departureOrder && after != null) {
+                    // itineraries depart with their first leg, earlier ones precede the cursor
+                    from = Math.max(from, bucket.lowerBound(after.departure()));
+                }
+                Cursor cursor = new Cursor(stops[position], bucket, from, bucket.upperBound(criteria.departureTo()));
+                if (cursor.hasNext()) {
+                    firstLegs.add(cursor);
+                }
+            }
+        }
+
+        TopK<ScheduledFlight> itineraries = new TopK<>(criteria.limit(), ScheduledFlight.order(sortKey));
+        while (!firstLegs.isEmpty()) {
+            // in departure order, no later first leg can make it into the full selection
+            if (
+                departureOrder &&
+                itineraries.isFull() &&
+                firstLegs.peek().departure() > itineraries.last().departure()
+            ) {
+                break;
+            }
+
+            Cursor cursor = firstLegs.poll();
+            Leg firstLeg = new Leg(cursor.bucket, cursor.index);
+
+            if (cursor.bucket.flightType(cursor.index) == FlightType.DIRECT) {
+                Selection selection = new Selection(
+                    criteria,
+                    itineraries.isFull() ? itineraries.last().sortValue(sortKey) : Long.MAX_VALUE
+                );
+                Itinerary best = bestItinerary(network, origin, destination, cursor.stop, firstLeg, arrival, selection);
+                if (best != null) {
+                    itineraries.offer(best.materialize());
+                }
+            }
+
+            cursor.index++;
+            if (cursor.hasNext()) {
+                firstLegs.add(cursor);
+            }
+        }
+
+        return itineraries.toSortedList();
+    }
+
+    private Itinerary bestItinerary(
+        final RouteNetwork network,
+        final int origin,
+        final int destination,
+        final int stop,
+        final Leg firstLeg,
+        final long arrival,
+        final Selection selection
+    ) {
+        long firstDeparture = firstLeg.departure();
+        long firstArrival = firstLeg.arrival();
+        long firstPrice = firstLeg.price();
+        if (selection.prunes(firstDeparture, firstArrival, firstPrice, null)) {
+            return null;
+        }
+
+        // one stop: origin -> stop -> destination
+        RouteBucket lastLegs = network.route(stop, destination);
+        Itinerary best = bestOnward(lastLegs, new Leg[] { firstLeg }, arrival, selection, null);
+
+        // two stops: origin -> stop -> second stop -> destination
+        int[] secondStops = network.destinations(stop);
+        for (int position = 0; position < secondStops.length; position++) {
+            int secondStop = secondStops[position];
+            if (secondStop == origin || secondStop == destination) {
+                continue;
+            }
+
+            RouteBucket secondLegs = network.outgoingRoute(stop, position);
+            lastLegs = network.route(secondStop, destination);
+            if (lastLegs.size() == 0) {
+                continue;
+            }
+
+            int end = secondLegs.lowerBound(firstArrival + maximumConnectionSeconds + 1);
+            for (int index = secondLegs.lowerBound(firstArrival + minimumConnectionSeconds); index < end; index++) {
+                // legs are in departure order, so the bounds of the following legs are not lower
+                if (selection.prunes(firstDeparture, secondLegs.departure(index), firstPrice, best)) {
+                    break;
+                }
+                long secondArrival = secondLegs.arrival(index);
+                long secondPrice = firstPrice + secondLegs.price(index);
+                if (
+                    connects(firstLeg, secondLegs, index) &&
+                    !selection.prunes(firstDeparture, secondArrival, secondPrice, best)
+                ) {
+                    Leg[] legs = { firstLeg, new Leg(secondLegs, index) };
+                    best = bestOnward(lastLegs, legs, arrival, selection, best);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * @return best of the current best and the itineraries completed with a fitting last leg
+     */
+    private Itinerary bestOnward(
+        final RouteBucket lastLegs,
+        final Leg[] previousLegs,
+        final long arrival,
+        final Selection selection,
+        final Itinerary currentBest
+    ) {
+        Itinerary best = currentBest;
+        Leg previousLeg = previousLegs[previousLegs.length - 1];
+        long firstDeparture = previousLegs[0].departure();
+        long previousArrival = previousLeg.arrival();
+        long previousPrice = Arrays.stream(previousLegs).mapToLong(Leg::price).sum();
+
+        int end = lastLegs.lowerBound(previousArrival + maximumConnectionSeconds + 1);
+        for (int index = lastLegs.lowerBound(previousArrival + minimumConnectionSeconds); index < end; index++) {
+            // legs are in departure order, so the bounds of the following legs are not lower
+            if (selection.prunes(firstDeparture, lastLegs.departure(index), previousPrice, best)) {
+                break;
+            }
+            if (!connects(previousLeg, lastLegs, index)) {
+                continue;
+            }
+            if (arrival != ANY_ARRIVAL && lastLegs.arrival(index) != arrival) {
+                continue;
+            }
+
+            Leg[] legs = Arrays.copyOf(previousLegs, previousLegs.length + 1);
+            legs[previousLegs.length] = new Leg(lastLegs, index);
+            Itinerary candidate = new Itinerary(legs);
+
+            if (
+                !selection.prunes(candidate.departure(), candidate.arrival(), candidate.price(), best) &&
+                selection.accepts(candidate)
+            ) {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    private static boolean connects(final Leg previousLeg, final RouteBucket nextLegs, final int index) {
+        return (
+            nextLegs.flightType(index) == FlightType.DIRECT &&
+            nextLegs.currency(index) == previousLeg.bucket.currency(previousLeg.index)
+        );
+    }
+
+    private static final class Cursor {
+
+        private final int stop;
+        private final RouteBucket bucket;
+        private final int end;
+        private int index;
+
+        private Cursor(final int stop, final RouteBucket bucket, final int index, final int end) {
+            this.stop = stop;
+            this.bucket = bucket;
+            this.index = index;
+            this.end = end;
+        }
+
+        private boolean hasNext() {
+            return index < end;
+        }
+
+        private long departure() {
+            return bucket.departure(index);
+        }
+    }
+
+    /**
+     * Order of the itineraries of a first leg, by the searched sort value, then by arrival and price, among the ones
+     * passing the filters and following the cursor of the criteria.
+     *
+     * @param limit sort value of the last selected itinerary once the selection is full, otherwise
+     *              {@link Long#MAX_VALUE}
+     */
+    private record Selection(FlightSearchCriteria criteria, long limit) {
+        /**
+         * Compares lower bounds of all itineraries completing a partial itinerary: when they are not better than the
+         * best itinerary, no completion is.
+         *
+         * @param departure departure of the first leg
+         * @param arrival   lower bound of the arrival of the completed itineraries
+         * @param price     lower bound of the price of the completed itineraries
+         * @param best      best itinerary of the first leg found so far, {@code null} if none
+         * @return whether no completion is better than the best itinerary, can make it into the full selection or stays
+         *     within the maximum price
+         */
+        boolean prunes(final long departure, final long arrival, final long price, final Itinerary best) {
+            long sortValue = sortValue(criteria.sortBy(), departure, arrival, price);
+            if (sortValue > limit || (criteria.maxPrice() != null && price > criteria.maxPrice())) {
+                return true;
+            }
+            if (best == null) {
+                return false;
+            }
+
+            int order = Long.compare(sortValue, best.sortValue(criteria.sortBy()));
+            if (order == 0) {
+                order = Long.compare(arrival, best.arrival());
+            }
+            if (order == 0) {
+                order = Long.compare(price, best.price());
+            }
+            return order >= 0;
+        }
+
+        /**
+         * @return whether the completed itinerary passes the fare class and price filters and follows the cursor
+         */
+        boolean accepts(final Itinerary itinerary) {
+            return (
+                criteria.matchesFare(itinerary.fareClass(), Math.toIntExact(itinerary.price())) &&
+                (criteria.after() == null || itinerary.isAfter(criteria.after()))
+            );
+        }
+    }
+
+    private static long sortValue(
+        final FlightSortKey sortKey,
+        final long departure,
+        final long arrival,
+        final long price
+    ) {
+        return switch (sortKey) {
+            case DEPARTURE -> departure;
+            case ARRIVAL -> arrival;
+            case PRICE -> price;
+            case DURATION -> arrival - departure;
+        };
+    }
+
+    private record Leg(RouteBucket bucket, int index) {
+        long departure() {
+            return bucket.departure(index);
+        }
+
+        long arrival() {
+            return bucket.arrival(index);
+        }
+
+        long price() {
+            return bucket.price(index);
+        }
+    }
+
+    private record Itinerary(Leg[] legs) {
+        long departure() {
+            return legs[0].departure();
+        }
+
+        long arrival() {
+            return legs[legs.length - 1].arrival();
+        }
+
+        long price() {
+            return Arrays.stream(legs).mapToLong(Leg::price).sum();
+        }
+
+        long sortValue(final FlightSortKey sortKey) {
+            return ConnectionBuilder.sortValue(sortKey, departure(), arrival(), price());
+        }
+
+        /**
+         * @return lowest fare class of the legs, the one the itinerary is sold in
+         */
+        FareClass fareClass() {
+            return Arrays
+                .stream(legs)
+                .map(leg -> leg.bucket.fareClass(leg.index))
+                .min(Comparator.naturalOrder())
+                .orElse(FareClass.E);
+        }
+
+        /**
+         * @return whether the itinerary follows the cursor position, like {@link ScheduledFlight#isAfter(FlightCursor)}
+         *     of the materialized itinerary
+         */
+        boolean isAfter(final FlightCursor cursor) {
+            int order = Long.compare(sortValue(cursor.sortBy()), cursor.value());
+            if (order == 0) {
+                order = Long.compare(departure(), cursor.departure());
+            }
+            return order != 0 ? order > 0 : id().compareTo(cursor.id()) > 0;
+        }
+
+        /**
+         * @return joined ids of the legs
+         */
+        String id() {
+            return Arrays.stream(legs).map(leg -> leg.bucket.id(leg.index)).collect(Collectors.joining("+"));
+        }
+
+        /**
+         * Itinerary as a segmented flight: identified by the joined leg ids, priced as the sum of the legs and sold in
+         * the lowest fare class of its legs.
+         */
+        ScheduledFlight materialize() {
+            FlightItem[] via = Arrays.stream(legs).map(leg -> leg.bucket.get(leg.index)).toArray(FlightItem[]::new);
+            FlightItem first = via[0];
+            FlightItem last = via[via.length - 1];
+
+            FlightItem flightItem = new FlightItem(
+                id(),
+                first.departureDateTime(),
+                last.arrivalDateTime(),
+                first.origin(),
+                last.destination(),
+                first.airlineCode(),
+                Math.toIntExact(price()),
+                first.currency(),
+                fareClass(),
+                FlightType.SEGMENTED,
+                via
+            );
+
+            return new ScheduledFlight(flightItem, departure(), arrival());
+        }
+    }
+}
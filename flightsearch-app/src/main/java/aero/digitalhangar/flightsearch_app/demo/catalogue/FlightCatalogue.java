@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, route-keyed index over a flights catalogue.
+ * <p>
+ * Flights are parsed and grouped by their normalized {@link RouteKey} once, at build time, so a search only has to
+ * look up a single {@link RouteBucket} instead of scanning the whole catalogue. Buckets share one {@link CodeTable}
+ * for the airport, airline and currency codes; the {@link RouteNetwork} resolves routes by the codes of their
+ * normalized airports.
+ * <p>
+ * {@link #apply(CatalogueDelta)} derives a new catalogue rebuilding only the buckets touched by the delta and the
+ * adjacency lists of their origins; all other buckets and adjacency lists, the code table and the untouched id index
+ * shards are shared with the original catalogue.
+ */
+public final class FlightCatalogue {
+
+    private final RouteNetwork network;
+    private final int size;
+    private volatile FlightIdIndex idIndex; // built with the first delta
+    private volatile Long contentHash; // computed on first use, carried forward by deltas
+
+    FlightCatalogue(final Map<RouteKey, RouteBucket> routes, final CodeTable codes, final int size) {
+        this(routes, codes, size, null);
+    }
+
+    /**
+     * @param contentHash {@link #contentHash()} of the flights if already known, e.g. stored with a snapshot
+     */
+    FlightCatalogue(
+        final Map<RouteKey, RouteBucket> routes,
+        final CodeTable codes,
+        final int size,
+        final Long contentHash
+    ) {
+        this(RouteNetwork.of(routes, codes), size, null, contentHash);
+    }
+
+    private FlightCatalogue(
+        final RouteNetwork network,
+        final int size,
+        final FlightIdIndex idIndex,
+        final Long contentHash
+    ) {
+        this.network = network;
+        this.size = size;
+        this.idIndex = idIndex;
+        this.contentHash = contentHash;
+    }
+
+    public static FlightCatalogue of(final Collection<FlightItem> flights) {
+        CodeTable codes = new CodeTable();
+        Map<RouteKey, RouteBucket> routes = flights
+            .stream()
+            .map(ScheduledFlight::of)
+            .collect(
+                Collectors.groupingBy(flight ->
+                    RouteKey.of(flight.flightItem().origin(), flight.flightItem().destination())
+                )
+            )
+            .entrySet()
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> RouteBucket.of(entry.getValue(), codes)));
+
+        return new FlightCatalogue(routes, codes, flights.size());
+    }
+
+    /**
+     * @return new catalogue with the delta applied; this catalogue is left unchanged
+     */
+    public FlightCatalogue apply(final CatalogueDelta delta) {
+        Map<String, ScheduledFlight> upserts = new LinkedHashMap<>();
+        delta.upserts().forEach(flightItem -> upserts.put(flightItem.id(), ScheduledFlight.of(flightItem)));
+        upserts.keySet().removeAll(delta.deletes());
+
+        FlightIdIndex index = idIndex();
+        Map<RouteKey, Set<String>> removals = new HashMap<>();
+        Map<RouteKey, List<ScheduledFlight>> additions = new HashMap<>();
+        Map<String, RouteKey> indexChanges = new HashMap<>();
+
+        Stream.concat(upserts.keySet().stream(), delta.deletes().stream()).forEach(id -> {
+            RouteKey current = index.route(id);
+            if (current != null) {
+                removals.computeIfAbsent(current, routeKey -> new HashSet<>()).add(id);
+                indexChanges.put(id, null);
+            }
+        });
+        upserts.forEach((id, flight) -> {
+            RouteKey routeKey = RouteKey.of(flight.flightItem().origin(), flight.flightItem().destination());
+            additions.computeIfAbsent(routeKey, key -> new ArrayList<>()).add(flight);
+            indexChanges.put(id, routeKey);
+        });
+
+        Map<RouteKey, RouteBucket> changedRoutes = new HashMap<>();
+        int changedSize = size;
+        Long changedHash = contentHash;
+        Set<RouteKey> touchedRoutes = new HashSet<>(removals.keySet());
+        touchedRoutes.addAll(additions.keySet());
+
+        for (RouteKey routeKey : touchedRoutes) {
+            RouteBucket bucket = route(routeKey.origin(), routeKey.destination());
+            RouteBucket merged = bucket.merge(
+                removals.getOrDefault(routeKey, Set.of()),
+                additions.getOrDefault(routeKey, List.of()),
+                codes()
+            );
+            changedSize += merged.size() - bucket.size();
+            if (changedHash != null) {
+                changedHash += merged.contentHash() - bucket.contentHash();
+            }
+            changedRoutes.put(routeKey, merged);
+        }
+
+        return new FlightCatalogue(network.with(changedRoutes), changedSize, index.with(indexChanges), changedHash);
+    }
+
+    /**
+     * @return flights of the given route; empty bucket when the route is not served
+     */
+    public RouteBucket route(final String origin, final String destination) {
+        if (origin == null || destination == null) {
+            return RouteBucket.EMPTY;
+        }
+
+        RouteKey routeKey = RouteKey.of(origin, destination);
+        return network.route(network.airport(routeKey.origin()), network.airport(routeKey.destination()));
+    }
+
+    RouteNetwork network() {
+        return network;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int routeCount() {
+        return network.routeCount();
+    }
+
+    public CodeTable codes() {
+        return network.codes();
+    }
+
+    /**
+     * Hash of the flights, independent of how and in which order they were loaded, so that replicas serving the same
+     * flights agree on it. Computed over all flights on first use; a catalogue derived by a delta from a catalogue
+     * with a known hash only hashes the rebuilt buckets.
+     */
+    public long contentHash() {
+        Long hash = contentHash;
+        if (hash == null) {
+            hash = routes().values().stream().mapToLong(RouteBucket::contentHash).sum();
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * @return {@link #contentHash()} if already computed or known, without computing it
+     */
+    public OptionalLong knownContentHash() {
+        Long hash = contentHash;
+        return hash == null ? OptionalLong.empty() : OptionalLong.of(hash);
+    }
+
+    /**
+     * @return all routes, collected from the route network on each call
+     */
+    Map<RouteKey, RouteBucket> routes() {
+        Map<RouteKey, RouteBucket> routes = new HashMap<>();
+        network.forEachRoute(routes::put);
+        return routes;
+    }
+
+    private FlightIdIndex idIndex() {
+        FlightIdIndex index = idIndex;
+        if (index == null) {
+            index = FlightIdIndex.of(routes());
+            idIndex = index;
+        }
+        return index;
+    }
+}
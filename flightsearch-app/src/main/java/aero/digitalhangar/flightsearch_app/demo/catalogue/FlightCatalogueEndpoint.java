@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.time.Instant;
+import java.util.OptionalLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the served catalogue ({@code GET /catalogue}) and reloading it ({@code POST /catalogue}).
+ */
+@Component
+@Endpoint(id = "catalogue")
+@RequiredArgsConstructor
+public class FlightCatalogueEndpoint {
+
+    private final FlightCatalogueHolder catalogueHolder;
+
+    @ReadOperation
+    public CatalogueStatus status() {
+        return CatalogueStatus.of(catalogueHolder.current());
+    }
+
+    @WriteOperation
+    public CatalogueStatus reload() {
+        return CatalogueStatus.of(catalogueHolder.reload());
+    }
+
+    public record CatalogueStatus(
+        long version,
+        Long contentHash,
+        int flights,
+        int routes,
+        Instant loadedAt,
+        long loadDurationMillis
+    ) {
+        static CatalogueStatus of(final PublishedCatalogue published) {
+            // not computed for the status alone, it reads every flight
+            OptionalLong contentHash = published.catalogue().knownContentHash();
+
+            return new CatalogueStatus(
+                published.version(),
+                contentHash.isPresent() ? Long.valueOf(contentHash.getAsLong()) : null,
+                published.catalogue().size(),
+                published.catalogue().routeCount(),
+                published.loadedAt(),
+                published.loadDurationMillis()
+            );
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the served flight catalogue and replaces it without downtime.
+ * <p>
+ * A reload or a delta builds the new immutable catalogue on the calling thread, off the request path, and publishes it
+ * with a single reference swap. Searches read the reference once and finish on the snapshot they started with; the
+ * read path takes no locks, only the writers are serialized. Writers hold a {@link ReentrantLock} rather than the
+ * monitor, so a reload reading the snapshot file from a virtual thread does not pin its carrier.
+ * <p>
+ * Listeners registered with {@link #onPublish(Consumer)} are notified of each published catalogue on the writing
+ * thread, after the swap.
+ */
+@Slf4j
+@Component
+public class FlightCatalogueHolder {
+
+    private final FlightCatalogueLoader loader;
+    private final AtomicReference<PublishedCatalogue> current = new AtomicReference<>();
+    private final ReentrantLock writer = new ReentrantLock();
+    private final List<Consumer<PublishedCatalogue>> listeners = new CopyOnWriteArrayList<>();
+
+    public FlightCatalogueHolder(final FlightCatalogueLoader loader) {
+        this.loader = loader;
+        reload();
+    }
+
+    public PublishedCatalogue current() {
+        return current.get();
+    }
+
+    public void onPublish(final Consumer<PublishedCatalogue> listener) {
+        listeners.add(listener);
+    }
+
+    public PublishedCatalogue reload() {
+        writer.lock();
+        try {
+            long start = System.nanoTime();
+
+            return publish(loader.load(), start);
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Publishes the served catalogue with the delta applied; a later {@link #reload()} starts over from the source.
+     */
+    public PublishedCatalogue apply(final CatalogueDelta delta) {
+        writer.lock();
+        try {
+            long start = System.nanoTime();
+
+            return publish(current.get().catalogue().apply(delta), start);
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    private PublishedCatalogue publish(final FlightCatalogue catalogue, final long start) {
+        long loadDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        PublishedCatalogue previous = current.get();
+        long version = Math.max(previous == null ? 0 : previous.version() + 1, System.currentTimeMillis());
+        PublishedCatalogue published = new PublishedCatalogue(catalogue, version, Instant.now(), loadDurationMillis);
+
+        current.set(published);
+        log.info("Flight catalogue version {} published, {} flights", version, catalogue.size());
+        listeners.forEach(listener -> listener.accept(published));
+
+        return published;
+    }
+}
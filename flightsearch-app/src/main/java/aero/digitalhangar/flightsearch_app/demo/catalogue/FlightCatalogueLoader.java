@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the flight catalogue - memory-mapped from the configured snapshot file, generated by the configured
+ * {@link SyntheticFlights} or built from the mock flights when neither is configured.
+ */
+@Slf4j
+@Component
+public class FlightCatalogueLoader {
+
+    private final String snapshot;
+    private final SyntheticFlights syntheticFlights;
+
+    public FlightCatalogueLoader(
+        final @Value("${flightsearch.catalogue.snapshot:}") String snapshot,
+        final SyntheticFlights syntheticFlights
+    ) {
+        this.snapshot = snapshot;
+        this.syntheticFlights = syntheticFlights;
+    }
+
+    public FlightCatalogue load() {
+        long start = System.nanoTime();
+
+        FlightCatalogue catalogue;
+        String source;
+        if (!snapshot.isBlank()) {
+            catalogue = FlightCatalogueSnapshot.map(Path.of(snapshot));
+            source = snapshot;
+        } else if (syntheticFlights.enabled()) {
+            catalogue = FlightCatalogue.of(syntheticFlights.generate());
+            source = "synthetic data (seed " + syntheticFlights.seed() + ")";
+        } else {
+            catalogue = FlightCatalogue.of(MockFlightCatalogue.FLIGHTS);
+            source = "mock data";
+        }
+
+        log.info(
+            "Flight catalogue of {} flights loaded from {} in {} ms",
+            catalogue.size(),
+            source,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+
+        return catalogue;
+    }
+}
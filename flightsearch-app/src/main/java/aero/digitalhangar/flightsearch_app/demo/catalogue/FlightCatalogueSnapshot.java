@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versioned binary snapshot of a {@link FlightCatalogue}, served directly from memory-mapped pages.
+ * <p>
+ * Layout (version 2, big-endian):
+ * <pre>
+ * int magic 'FLTS', int version, int flight count, long content hash
+ * int code count, codes as (short length, UTF-8 bytes) in {@link CodeTable} order
+ * int route count, routes as (origin, destination as short length + UTF-8 bytes, columns block)
+ * columns block: int rows, int id bytes, byte has legs,
+ *   int[rows + 1] id offsets, long[rows] departures, long[rows] arrivals, int[rows] prices,
+ *   byte[rows] fare classes, byte[rows] flight types, int[rows] origins, int[rows] destinations,
+ *   int[rows] airlines, int[rows] currencies, int[rows + 1] leg offsets, byte[id bytes] ids,
+ *   followed by the columns block of the connecting legs when present
+ * </pre>
+ * Mapping reads the code table and the route headers only, so loading does not grow with the number of flights; the
+ * {@link FlightCatalogue#contentHash() content hash} is stored with them rather than computed from all flights.
+ * A single mapping is limited to 2 GB.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FlightCatalogueSnapshot {
+
+    static final int MAGIC = 0x464C5453;
+    static final int VERSION = 2;
+
+    public static FlightCatalogue map(final Path file) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map catalogue snapshot " + file, e);
+        }
+
+        if (buffer.remaining() < 3 * Integer.BYTES + Long.BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a catalogue snapshot: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported catalogue snapshot version " + version + ": " + file);
+        }
+        int size = buffer.getInt();
+        long contentHash = buffer.getLong();
+
+        CodeTable codes = new CodeTable();
+        int codeCount = buffer.getInt();
+        for (int code = 0; code < codeCount; code++) {
+            codes.encode(readString(buffer));
+        }
+
+        int routeCount = buffer.getInt();
+        Map<RouteKey, RouteBucket> routes = new HashMap<>(routeCount * 2);
+        for (int route = 0; route < routeCount; route++) {
+            RouteKey routeKey = new RouteKey(readString(buffer), readString(buffer));
+            routes.put(routeKey, RouteBucket.of(new MappedFlightColumns(buffer), codes));
+        }
+
+        return new FlightCatalogue(Map.copyOf(routes), codes, size, contentHash);
+    }
+
+    /**
+     * Writes the catalogue next to the target and moves it in place, so a file mapped by a running instance is never
+     * modified.
+     */
+    public static void write(final FlightCatalogue catalogue, final Path file) {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            try (
+                DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile))
+                )
+            ) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(catalogue.size());
+                output.writeLong(catalogue.contentHash());
+
+                CodeTable codes = catalogue.codes();
+                output.writeInt(codes.size());
+                for (int code = 0; code < codes.size(); code++) {
+                    writeString(output, codes.decode(code));
+                }
+
+                Map<RouteKey, RouteBucket> routes = catalogue.routes();
+                output.writeInt(routes.size());
+                for (Map.Entry<RouteKey, RouteBucket> route : routes.entrySet()) {
+                    writeString(output, route.getKey().origin());
+                    writeString(output, route.getKey().destination());
+                    writeColumns(output, route.getValue().columns());
+                }
+            }
+
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write catalogue snapshot " + file, e);
+        }
+    }
+
+    private static void writeColumns(final DataOutputStream output, final FlightColumns columns) throws IOException {
+        int size = columns.size();
+        byte[][] ids = new byte[size][];
+        int idBytes = 0;
+        for (int row = 0; row < size; row++) {
+            ids[row] = columns.id(row).getBytes(StandardCharsets.UTF_8);
+            idBytes += ids[row].length;
+        }
+
+        output.writeInt(size);
+        output.writeInt(idBytes);
+        output.writeBoolean(columns.legs() != null);
+
+        int idOffset = 0;
+        output.writeInt(idOffset);
+        for (int row = 0; row < size; row++) {
+            idOffset += ids[row].length;
+            output.writeInt(idOffset);
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeLong(columns.departure(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeLong(columns.arrival(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeInt(columns.price(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeByte(columns.fareClass(row).ordinal());
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeByte(columns.flightType(row).ordinal());
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeInt(columns.origin(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeInt(columns.destination(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeInt(columns.airline(row));
+        }
+        for (int row = 0; row < size; row++) {
+            output.writeInt(columns.currency(row));
+        }
+        for (int row = 0; row <= size; row++) {
+            output.writeInt(columns.legOffset(row));
+        }
+        for (byte[] id : ids) {
+            output.write(id);
+        }
+
+        if (columns.legs() != null) {
+            writeColumns(output, columns.legs());
+        }
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
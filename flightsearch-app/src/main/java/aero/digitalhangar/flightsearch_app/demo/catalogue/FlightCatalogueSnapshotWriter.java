@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Command line tool writing the catalogue served by the application as a catalogue snapshot, run by the
+ * {@code writeCatalogueSnapshot} Gradle task. The catalogue is loaded by the {@link FlightCatalogueLoader} with the
+ * application configuration, so arguments after the snapshot file select its source like they would for the
+ * application, e.g. {@code --spring.profiles.include=synthetic}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FlightCatalogueSnapshotWriter {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: FlightCatalogueSnapshotWriter <snapshot file> [app args]");
+        }
+
+        Path file = Path.of(args[0]).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+
+        SpringApplication application = new SpringApplication(CatalogueSource.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+
+        try (ConfigurableApplicationContext context = application.run(Arrays.copyOfRange(args, 1, args.length))) {
+            FlightCatalogue catalogue = context.getBean(FlightCatalogueLoader.class).load();
+            FlightCatalogueSnapshot.write(catalogue, file);
+
+            System.out.printf("Catalogue snapshot of %d flights written to %s%n", catalogue.size(), file);
+        }
+    }
+
+    /**
+     * Only the beans loading the catalogue, not annotated as configuration so the application does not scan it.
+     */
+    @EnableConfigurationProperties(SyntheticFlights.class)
+    @Import(FlightCatalogueLoader.class)
+    static class CatalogueSource {}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Instant;
+
+/**
+ * Column-oriented storage of flights: one primitive column per field instead of one object per flight.
+ * <p>
+ * Airport/airline/currency codes are {@link CodeTable} codes and enums are stored as ordinals. Connecting legs of
+ * segmented flights are rows of the nested {@link #legs()} columns, row {@code i} owning the legs from
+ * {@code legOffset(i)} (inclusive) to {@code legOffset(i + 1)} (exclusive). {@link FlightItem} objects are only
+ * materialized on demand, for returned rows.
+ */
+abstract class FlightColumns {
+
+    static final FareClass[] FARE_CLASSES = FareClass.values();
+    static final FlightType[] FLIGHT_TYPES = FlightType.values();
+
+    private static final FlightItem[] NO_LEGS = new FlightItem[0];
+
+    abstract int size();
+
+    abstract String id(int row);
+
+    /**
+     * @return departure time in epoch seconds
+     */
+    abstract long departure(int row);
+
+    /**
+     * @return arrival time in epoch seconds
+     */
+    abstract long arrival(int row);
+
+    abstract int price(int row);
+
+    abstract FareClass fareClass(int row);
+
+    abstract FlightType flightType(int row);
+
+    abstract int origin(int row);
+
+    abstract int destination(int row);
+
+    abstract int airline(int row);
+
+    abstract int currency(int row);
+
+    abstract int legOffset(int row);
+
+    /**
+     * @return connecting legs; {@code null} when none of the rows has any
+     */
+    abstract FlightColumns legs();
+
+    FlightItem materialize(final int row, final CodeTable codes) {
+        FlightItem[] via = NO_LEGS;
+        int firstLeg = legOffset(row);
+        int legCount = legOffset(row + 1) - firstLeg;
+        if (legCount > 0) {
+            via = new FlightItem[legCount];
+            for (int leg = 0; leg < legCount; leg++) {
+                via[leg] = legs().materialize(firstLeg + leg, codes);
+            }
+        }
+
+        return new FlightItem(
+            id(row),
+            Instant.ofEpochSecond(departure(row)).toString(),
+            Instant.ofEpochSecond(arrival(row)).toString(),
+            codes.decode(origin(row)),
+            codes.decode(destination(row)),
+            codes.decode(airline(row)),
+            price(row),
+            codes.decode(currency(row)),
+            fareClass(row),
+            flightType(row),
+            via
+        );
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable index of the route serving each flight id, split into shards so a delta copies only the shards it changes.
+ */
+final class FlightIdIndex {
+
+    private static final int SHARDS = 64;
+
+    private final Map<String, RouteKey>[] shards;
+
+    private FlightIdIndex(final Map<String, RouteKey>[] shards) {
+        this.shards = shards;
+    }
+
+    @SuppressWarnings("unchecked")
+    static FlightIdIndex of(final Map<RouteKey, RouteBucket> routes) {
+        Map<String, RouteKey>[] shards = new Map[SHARDS];
+        for (int shard = 0; shard < SHARDS; shard++) {
+            shards[shard] = new HashMap<>();
+        }
+
+        routes.forEach((routeKey, bucket) -> {
+            for (int index = 0; index < bucket.size(); index++) {
+                String id = bucket.id(index);
+                shards[shard(id)].put(id, routeKey);
+            }
+        });
+
+        return new FlightIdIndex(shards);
+    }
+
+    /**
+     * @return route serving the flight; {@code null} for an unknown id
+     */
+    RouteKey route(final String id) {
+        return shards[shard(id)].get(id);
+    }
+
+    /**
+     * @param changes new route of each changed id; {@code null} route removes the id
+     */
+    FlightIdIndex with(final Map<String, RouteKey> changes) {
+        Map<String, RouteKey>[] changedShards = shards.clone();
+        boolean[] copied = new boolean[SHARDS];
+
+        changes.forEach((id, routeKey) -> {
+            int shard = shard(id);
+            if (!copied[shard]) {
+                changedShards[shard] = new HashMap<>(shards[shard]);
+                copied[shard] = true;
+            }
+
+            if (routeKey == null) {
+                changedShards[shard].remove(id);
+            } else {
+                changedShards[shard].put(id, routeKey);
+            }
+        });
+
+        return new FlightIdIndex(changedShards);
+    }
+
+    private static int shard(final String id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (SHARDS - 1);
+    }
+}
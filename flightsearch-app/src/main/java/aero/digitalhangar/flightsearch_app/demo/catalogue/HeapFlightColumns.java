@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link FlightColumns} kept in heap arrays; ids are packed into a single byte array.
+ * <p>
+ * Columns are assembled row by row with a {@link Builder}, either from parsed flights or by copying rows of existing
+ * columns, so buckets can be rebuilt without materializing their flights.
+ */
+final class HeapFlightColumns extends FlightColumns {
+
+    private final int size;
+    private final byte[] ids;
+    private final int[] idOffsets;
+    private final long[] departures;
+    private final long[] arrivals;
+    private final int[] prices;
+    private final byte[] fareClasses;
+    private final byte[] flightTypes;
+    private final int[] origins;
+    private final int[] destinations;
+    private final int[] airlines;
+    private final int[] currencies;
+    private final int[] legOffsets;
+    private final HeapFlightColumns legs;
+
+    private HeapFlightColumns(final Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, builder.idOffsets[size]);
+        idOffsets = Arrays.copyOf(builder.idOffsets, size + 1);
+        departures = Arrays.copyOf(builder.departures, size);
+        arrivals = Arrays.copyOf(builder.arrivals, size);
+        prices = Arrays.copyOf(builder.prices, size);
+        fareClasses = Arrays.copyOf(builder.fareClasses, size);
+        flightTypes = Arrays.copyOf(builder.flightTypes, size);
+        origins = Arrays.copyOf(builder.origins, size);
+        destinations = Arrays.copyOf(builder.destinations, size);
+        airlines = Arrays.copyOf(builder.airlines, size);
+        currencies = Arrays.copyOf(builder.currencies, size);
+        legOffsets = Arrays.copyOf(builder.legOffsets, size + 1);
+        legs = builder.legs == null || builder.legs.size == 0 ? null : builder.legs.build();
+    }
+
+    /**
+     * @param flights flights in the order of the rows
+     * @param codes   dictionary for the airport, airline and currency codes; {@code null} only for empty columns
+     */
+    static HeapFlightColumns of(final List<ScheduledFlight> flights, final CodeTable codes) {
+        Builder builder = new Builder(codes, flights.size());
+        flights.forEach(builder::add);
+
+        return builder.build();
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    String id(final int row) {
+        return new String(ids, idOffsets[row], idOffsets[row + 1] - idOffsets[row], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    long departure(final int row) {
+        return departures[row];
+    }
+
+    @Override
+    long arrival(final int row) {
+        return arrivals[row];
+    }
+
+    @Override
+    int price(final int row) {
+        return prices[row];
+    }
+
+    @Override
+    FareClass fareClass(final int row) {
+        return FARE_CLASSES[fareClasses[row]];
+    }
+
+    @Override
+    FlightType flightType(final int row) {
+        return FLIGHT_TYPES[flightTypes[row]];
+    }
+
+    @Override
+    int origin(final int row) {
+        return origins[row];
+    }
+
+    @Override
+    int destination(final int row) {
+        return destinations[row];
+    }
+
+    @Override
+    int airline(final int row) {
+        return airlines[row];
+    }
+
+    @Override
+    int currency(final int row) {
+        return currencies[row];
+    }
+
+    @Override
+    int legOffset(final int row) {
+        return legOffsets[row];
+    }
+
+    @Override
+    HeapFlightColumns legs() {
+        return legs;
+    }
+
+    /**
+     * Appends rows to growing column arrays; legs of the appended flights go to a nested builder.
+     */
+    static final class Builder {
+
+        private final CodeTable codes;
+        private int size;
+        private byte[] ids;
+        private int[] idOffsets;
+        private long[] departures;
+        private long[] arrivals;
+        private int[] prices;
+        private byte[] fareClasses;
+        private byte[] flightTypes;
+        private int[] origins;
+        private int[] destinations;
+        private int[] airlines;
+        private int[] currencies;
+        private int[] legOffsets;
+        private Builder legs;
+
+        Builder(final CodeTable codes, final int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            this.codes = codes;
+            ids = new byte[capacity * 8];
+            idOffsets = new int[capacity + 1];
+            departures = new long[capacity];
+            arrivals = new long[capacity];
+            prices = new int[capacity];
+            fareClasses = new byte[capacity];
+            flightTypes = new byte[capacity];
+            origins = new int[capacity];
+            destinations = new int[capacity];
+            airlines = new int[capacity];
+            currencies = new int[capacity];
+            legOffsets = new int[capacity + 1];
+        }
+
+        Builder add(final ScheduledFlight flight) {
+            FlightItem flightItem = flight.flightItem();
+            int row = nextRow(flightItem.id().getBytes(StandardCharsets.UTF_8));
+
+            departures[row] = flight.departure();
+            arrivals[row] = flight.arrival();
+            prices[row] = flightItem.price();
+            fareClasses[row] = (byte) flightItem.fareClass().ordinal();
+            flightTypes[row] = (byte) flightItem.flightType().ordinal();
+            origins[row] = codes.encode(flightItem.origin());
+            destinations[row] = codes.encode(flightItem.destination());
+            airlines[row] = codes.encode(flightItem.airlineCode());
+            currencies[row] = codes.encode(flightItem.currency());
+
+            if (flightItem.viaFlightItems() != null && flightItem.viaFlightItems().length > 0) {
+                Builder legBuilder = legs();
+                Arrays.stream(flightItem.viaFlightItems()).map(ScheduledFlight::of).forEach(legBuilder::add);
+            }
+            legOffsets[row + 1] = legs == null ? 0 : legs.size;
+
+            return this;
+        }
+
+        /**
+         * Copies a row of columns sharing the same {@link CodeTable}, including its connecting legs.
+         */
+        Builder add(final FlightColumns source, final int sourceRow) {
+            int row = nextRow(source.id(sourceRow).getBytes(StandardCharsets.UTF_8));
+
+            departures[row] = source.departure(sourceRow);
+            arrivals[row] = source.arrival(sourceRow);
+            prices[row] = source.price(sourceRow);
+            fareClasses[row] = (byte) source.fareClass(sourceRow).ordinal();
+            flightTypes[row] = (byte) source.flightType(sourceRow).ordinal();
+            origins[row] = source.origin(sourceRow);
+            destinations[row] = source.destination(sourceRow);
+            airlines[row] = source.airline(sourceRow);
+            currencies[row] = source.currency(sourceRow);
+
+            int firstLeg = source.legOffset(sourceRow);
+            int lastLeg = source.legOffset(sourceRow + 1);
+            if (lastLeg > firstLeg) {
+                Builder legBuilder = legs();
+                for (int leg = firstLeg; leg < lastLeg; leg++) {
+                    legBuilder.add(source.legs(), leg);
+                }
+            }
+            legOffsets[row + 1] = legs == null ? 0 : legs.size;
+
+            return this;
+        }
+
+        HeapFlightColumns build() {
+            return new HeapFlightColumns(this);
+        }
+
+        private Builder legs() {
+            if (legs == null) {
+                legs = new Builder(codes, size + 1);
+            }
+            return legs;
+        }
+
+        private int nextRow(final byte[] id) {
+            if (size == departures.length) {
+                int capacity = size * 2;
+                idOffsets = Arrays.copyOf(idOffsets, capacity + 1);
+                departures = Arrays.copyOf(departures, capacity);
+                arrivals = Arrays.copyOf(arrivals, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                fareClasses = Arrays.copyOf(fareClasses, capacity);
+                flightTypes = Arrays.copyOf(flightTypes, capacity);
+                origins = Arrays.copyOf(origins, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                airlines = Arrays.copyOf(airlines, capacity);
+                currencies = Arrays.copyOf(currencies, capacity);
+                legOffsets = Arrays.copyOf(legOffsets, capacity + 1);
+            }
+            if (idOffsets[size] + id.length > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, idOffsets[size] + id.length));
+            }
+
+            System.arraycopy(id, 0, ids, idOffsets[size], id.length);
+            idOffsets[size + 1] = idOffsets[size] + id.length;
+
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily merges streams, each already sorted in a given order, into one sorted stream. A heap holds only the current
+ * head of every source, so consuming the first {@code n} merged elements pulls at most {@code n + k - 1} elements
+ * from the {@code k} sources.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {}
+
+    public static <T> Stream<T> merge(final List<Stream<T>> sources, final Comparator<? super T> order) {
+        if (sources.size() == 1) {
+            return sources.getFirst();
+        }
+
+        Iterator<T> merged = new MergingIterator<>(sources, order);
+
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+            .onClose(() -> sources.forEach(Stream::close));
+    }
+
+    private record Head<T>(T element, Iterator<T> source) {}
+
+    private static final class MergingIterator<T> implements Iterator<T> {
+
+        private final List<Stream<T>> sources;
+        private final PriorityQueue<Head<T>> heads;
+        private boolean started;
+        private Iterator<T> exhaustedHead; // source of the last returned element, pulled again only when needed
+
+        private MergingIterator(final List<Stream<T>> sources, final Comparator<? super T> order) {
+            this.sources = sources;
+            this.heads = new PriorityQueue<>(
+                Math.max(1, sources.size()),
+                (first, second) -> order.compare(first.element(), second.element())
+            );
+        }
+
+        @Override
+        public boolean hasNext() {
+            advance();
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            advance();
+            Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            exhaustedHead = head.source();
+
+            return head.element();
+        }
+
+        // sources are not pulled before the merged stream is consumed
+        private void advance() {
+            if (!started) {
+                started = true;
+                sources.forEach(source -> offer(source.iterator()));
+            } else if (exhaustedHead != null) {
+                offer(exhaustedHead);
+                exhaustedHead = null;
+            }
+        }
+
+        private void offer(final Iterator<T> source) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+    }
+}
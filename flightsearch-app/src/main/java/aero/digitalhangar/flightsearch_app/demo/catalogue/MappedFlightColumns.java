@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link FlightColumns} read straight from a memory-mapped snapshot, laid out as described in
+ * {@link FlightCatalogueSnapshot}.
+ * <p>
+ * Only the block header is read when mapping; every accessor is an absolute read from the mapped pages, so nothing is
+ * copied to the heap until a flight is materialized.
+ */
+final class MappedFlightColumns extends FlightColumns {
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int idOffsetsAt;
+    private final int departuresAt;
+    private final int arrivalsAt;
+    private final int pricesAt;
+    private final int fareClassesAt;
+    private final int flightTypesAt;
+    private final int originsAt;
+    private final int destinationsAt;
+    private final int airlinesAt;
+    private final int currenciesAt;
+    private final int legOffsetsAt;
+    private final int idsAt;
+    private final MappedFlightColumns legs;
+
+    /**
+     * Maps the columns block starting at the buffer position and moves the position past the block.
+     */
+    MappedFlightColumns(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        size = buffer.getInt();
+        int idBytes = buffer.getInt();
+        boolean hasLegs = buffer.get() != 0;
+
+        idOffsetsAt = buffer.position();
+        departuresAt = idOffsetsAt + Integer.BYTES * (size + 1);
+        arrivalsAt = departuresAt + Long.BYTES * size;
+        pricesAt = arrivalsAt + Long.BYTES * size;
+        fareClassesAt = pricesAt + Integer.BYTES * size;
+        flightTypesAt = fareClassesAt + size;
+        originsAt = flightTypesAt + size;
+        destinationsAt = originsAt + Integer.BYTES * size;
+        airlinesAt = destinationsAt + Integer.BYTES * size;
+        currenciesAt = airlinesAt + Integer.BYTES * size;
+        legOffsetsAt = currenciesAt + Integer.BYTES * size;
+        idsAt = legOffsetsAt + Integer.BYTES * (size + 1);
+
+        buffer.position(idsAt + idBytes);
+        legs = hasLegs ? new MappedFlightColumns(buffer) : null;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    String id(final int row) {
+        int start = buffer.getInt(idOffsetsAt + Integer.BYTES * row);
+        byte[] id = new byte[buffer.getInt(idOffsetsAt + Integer.BYTES * (row + 1)) - start];
+        buffer.get(idsAt + start, id);
+
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    long departure(final int row) {
+        return buffer.getLong(departuresAt + Long.BYTES * row);
+    }
+
+    @Override
+    long arrival(final int row) {
+        return buffer.getLong(arrivalsAt + Long.BYTES * row);
+    }
+
+    @Override
+    int price(final int row) {
+        return buffer.getInt(pricesAt + Integer.BYTES * row);
+    }
+
+    @Override
+    FareClass fareClass(final int row) {
+        return FARE_CLASSES[buffer.get(fareClassesAt + row)];
+    }
+
+    @Override
+    FlightType flightType(final int row) {
+        return FLIGHT_TYPES[buffer.get(flightTypesAt + row)];
+    }
+
+    @Override
+    int origin(final int row) {
+        return buffer.getInt(originsAt + Integer.BYTES * row);
+    }
+
+    @Override
+    int destination(final int row) {
+        return buffer.getInt(destinationsAt + Integer.BYTES * row);
+    }
+
+    @Override
+    int airline(final int row) {
+        return buffer.getInt(airlinesAt + Integer.BYTES * row);
+    }
+
+    @Override
+    int currency(final int row) {
+        return buffer.getInt(currenciesAt + Integer.BYTES * row);
+    }
+
+    @Override
+    int legOffset(final int row) {
+        return buffer.getInt(legOffsetsAt + Integer.BYTES * row);
+    }
+
+    @Override
+    MappedFlightColumns legs() {
+        return legs;
+    }
+}
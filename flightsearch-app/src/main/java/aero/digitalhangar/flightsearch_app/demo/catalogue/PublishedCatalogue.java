@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.time.Instant;
+
+/**
+ * Catalogue snapshot currently served, as published by {@link FlightCatalogueHolder}.
+ *
+ * @param version            increasing version, unique across restarts of the application
+ * @param loadedAt           publication time
+ * @param loadDurationMillis time spent building the catalogue
+ */
+public record PublishedCatalogue(FlightCatalogue catalogue, long version, Instant loadedAt, long loadDurationMillis) {
+    /**
+     * @return hash of the served flights, equal on all replicas serving the same flights; computed on first use
+     */
+    public long contentHash() {
+        return catalogue.contentHash();
+    }
+}
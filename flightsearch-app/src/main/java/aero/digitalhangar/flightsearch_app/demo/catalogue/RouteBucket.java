@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareCalendarDay;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable flights of a single route, sorted by departure time, then by id.
+ * <p>
+ * Flights are stored column-wise in {@link FlightColumns}, held on the heap or mapped from a snapshot; departures and
+ * arrivals are epoch seconds, taken from the {@link ScheduledFlight} parsed at load time. Departure windows are
+ * located with a binary search, the remaining filters compare primitives only and {@link FlightItem}s are
+ * materialized for the returned flights alone.
+ * <p>
+ * Two secondary structures are built with the first fare filtered or price sorted search of the bucket, so mapping a
+ * snapshot still reads no rows: a bitset of the rows of each {@link FareClass}, to skip rows of other fare classes,
+ * and the rows in price order, where price ranges are located with a binary search.
+ */
+public final class RouteBucket {
+
+    static final RouteBucket EMPTY = new RouteBucket(HeapFlightColumns.of(List.of(), null), null);
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final FlightColumns flights;
+    private final CodeTable codes;
+    private volatile FareIndex fareIndex; // built on first use
+    private volatile Long contentHash; // computed on first use
+
+    private RouteBucket(final FlightColumns flights, final CodeTable codes) {
+        this.flights = flights;
+        this.codes = codes;
+    }
+
+    static RouteBucket of(final List<ScheduledFlight> scheduledFlights, final CodeTable codes) {
+        List<ScheduledFlight> sorted = scheduledFlights
+            .stream()
+            .sorted(ScheduledFlight.order(FlightSortKey.DEPARTURE))
+            .toList();
+
+        return of(HeapFlightColumns.of(sorted, codes), codes);
+    }
+
+    /**
+     * @param flights columns already sorted by departure
+     */
+    static RouteBucket of(final FlightColumns flights, final CodeTable codes) {
+        return new RouteBucket(flights, codes);
+    }
+
+    /**
+     * @return value of the given sort key, comparable between flights of the route
+     */
+    public long sortValue(final FlightSortKey sortKey, final int index) {
+        return switch (sortKey) {
+            case DEPARTURE -> flights.departure(index);
+            case ARRIVAL -> flights.arrival(index);
+            case PRICE -> flights.price(index);
+            case DURATION -> duration(index);
+        };
+    }
+
+    /**
+     * Copy-on-write merge: the bucket is left untouched, the returned one lacks the removed ids and holds the added
+     * flights merged into the departure order.
+     */
+    RouteBucket merge(final Set<String> removedIds, final List<ScheduledFlight> added, final CodeTable codes) {
+        List<ScheduledFlight> sortedAdded = added
+            .stream()
+            .sorted(ScheduledFlight.order(FlightSortKey.DEPARTURE))
+            .toList();
+        HeapFlightColumns.Builder merged = new HeapFlightColumns.Builder(codes, size() + added.size());
+
+        int index = 0;
+        int next = 0;
+        while (index < size() || next < sortedAdded.size()) {
+            if (index < size() && removedIds.contains(flights.id(index))) {
+                index++;
+            } else if (
+                next == sortedAdded.size() ||
+                (index < size() && compareByDeparture(index, sortedAdded.get(next)) <= 0)
+            ) {
+                merged.add(flights, index++);
+            } else {
+                merged.add(sortedAdded.get(next++));
+            }
+        }
+
+        return new RouteBucket(merged.build(), codes);
+    }
+
+    private int compareByDeparture(final int index, final ScheduledFlight flight) {
+        int order = Long.compare(flights.departure(index), flight.departure());
+        return order != 0 ? order : flights.id(index).compareTo(flight.flightItem().id());
+    }
+
+    FlightColumns columns() {
+        return flights;
+    }
+
+    /**
+     * @return order independent hash of the flights, equal for buckets of the same flights in any process; read from
+     *     the columns without materializing the flights
+     */
+    long contentHash() {
+        Long hash = contentHash;
+        if (hash == null) {
+            long sum = 0;
+            for (int index = 0; index < size(); index++) {
+                sum += contentHash(index);
+            }
+            hash = sum;
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes codes by their value, as code tables differ between processes.
+     */
+    private long contentHash(final int index) {
+        long hash = mix(0, flights.id(index).hashCode());
+        hash = mix(hash, flights.departure(index));
+        hash = mix(hash, flights.arrival(index));
+        hash = mix(hash, codes.decode(flights.origin(index)).hashCode());
+        hash = mix(hash, codes.decode(flights.destination(index)).hashCode());
+        hash = mix(hash, codes.decode(flights.airline(index)).hashCode());
+        hash = mix(hash, flights.price(index));
+        hash = mix(hash, codes.decode(flights.currency(index)).hashCode());
+        hash = mix(hash, flights.fareClass(index).name().hashCode());
+        hash = mix(hash, flights.flightType(index).name().hashCode());
+
+        return hash ^ (hash >>> 29);
+    }
+
+    private static long mix(final long hash, final long value) {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L;
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * @return newly materialized flight; departure and arrival times are rendered as UTC instants
+     */
+    public FlightItem get(final int index) {
+        return flights.materialize(index, codes);
+    }
+
+    public String id(final int index) {
+        return flights.id(index);
+    }
+
+    /**
+     * @return departure time in epoch seconds
+     */
+    public long departure(final int index) {
+        return flights.departure(index);
+    }
+
+    /**
+     * @return arrival time in epoch seconds
+     */
+    public long arrival(final int index) {
+        return flights.arrival(index);
+    }
+
+    /**
+     * @return flight duration in seconds
+     */
+    public long duration(final int index) {
+        return flights.arrival(index) - flights.departure(index);
+    }
+
+    public int price(final int index) {
+        return flights.price(index);
+    }
+
+    public FareClass fareClass(final int index) {
+        return flights.fareClass(index);
+    }
+
+    public FlightType flightType(final int index) {
+        return flights.flightType(index);
+    }
+
+    /**
+     * @return {@link CodeTable} code of the currency
+     */
+    int currency(final int index) {
+        return flights.currency(index);
+    }
+
+    /**
+     * @return index of the first flight departing at or after the given instant; {@code null} means the first flight
+     */
+    public int lowerBound(final Instant departure) {
+        if (departure == null) {
+            return 0;
+        }
+
+        // sub-second instants are rounded up, as the departures are kept with a one-second precision
+        return lowerBound(departure.getEpochSecond() + (departure.getNano() > 0 ? 1 : 0));
+    }
+
+    /**
+     * @return index of the first flight departing at or after the given epoch second
+     */
+    public int lowerBound(final long epochSecond) {
+        int low = 0;
+        int high = flights.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (flights.departure(middle) < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return index following the last flight departing before the given instant; {@code null} means the bucket end
+     */
+    public int upperBound(final Instant departure) {
+        return departure == null ? flights.size() : lowerBound(departure);
+    }
+
+    /**
+     * @param fareClasses fare classes of the rows; {@code null} means all fare classes
+     * @return rows from {@code from} (inclusive) to {@code to} (exclusive) of the fare classes, in departure order
+     */
+    public IntStream rows(final int from, final int to, final Set<FareClass> fareClasses) {
+        if (fareClasses == null || fareClasses.size() == FlightColumns.FARE_CLASSES.length) {
+            return IntStream.range(from, to);
+        }
+
+        // each row has one fare class: merge the rows of the fare classes from the window on, without copying them
+        BitSet[] fareClassRows = fareIndex().fareClassRows();
+        BitSet[] selectedRows = fareClasses
+            .stream()
+            .map(fareClass -> fareClassRows[fareClass.ordinal()])
+            .toArray(BitSet[]::new);
+        int[] nextRows = new int[selectedRows.length];
+        Arrays.setAll(nextRows, fareClass -> selectedRows[fareClass].nextSetBit(from));
+
+        return IntStream.iterate(
+            takeNextRow(selectedRows, nextRows),
+            row -> row >= 0 && row < to,
+            row -> takeNextRow(selectedRows, nextRows)
+        );
+    }
+
+    /**
+     * @param nextRows next row of each of the rows, -1 when exhausted; advanced past the returned row
+     * @return lowest of the next rows, -1 when all rows are exhausted
+     */
+    private static int takeNextRow(final BitSet[] rows, final int[] nextRows) {
+        int lowest = -1;
+        for (int i = 0; i < nextRows.length; i++) {
+            if (nextRows[i] >= 0 && (lowest < 0 || nextRows[i] < nextRows[lowest])) {
+                lowest = i;
+            }
+        }
+        if (lowest < 0) {
+            return -1;
+        }
+
+        int row = nextRows[lowest];
+        nextRows[lowest] = rows[lowest].nextSetBit(row + 1);
+        return row;
+    }
+
+    /**
+     * @return position in the {@link #priceOrder(int, int) price order} of the first flight costing at least the
+     *     given price; {@code null} means the first position
+     */
+    public int priceLowerBound(final Integer price) {
+        return price == null ? 0 : priceLowerBound(price.longValue());
+    }
+
+    /**
+     * @return position in the {@link #priceOrder(int, int) price order} following the last flight costing at most the
+     *     given price; {@code null} means the end of the price order
+     */
+    public int priceUpperBound(final Integer price) {
+        return price == null ? flights.size() : priceLowerBound(price.longValue() + 1);
+    }
+
+    /**
+     * @return position in the {@link #priceOrder(int, int) price order} of the first flight costing at least the
+     *     given price
+     */
+    public int priceLowerBound(final long price) {
+        int[] priceOrder = fareIndex().priceOrder();
+        int low = 0;
+        int high = priceOrder.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (flights.price(priceOrder[middle]) < price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return rows at the positions from {@code from} (inclusive) to {@code to} (exclusive) of the price order, i.e.
+     *     sorted by price, then by departure and id
+     */
+    public IntStream priceOrder(final int from, final int to) {
+        int[] priceOrder = fareIndex().priceOrder();
+        return IntStream.range(from, to).map(position -> priceOrder[position]);
+    }
+
+    private FareIndex fareIndex() {
+        FareIndex index = fareIndex;
+        if (index == null) {
+            index = FareIndex.of(flights); // concurrent first searches may build equal indexes, either one is kept
+            fareIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Cheapest flight per departure day (UTC), flight type and currency, read in a single pass over the departure
+     * window: the rows are in departure order, so a day is complete as soon as the first flight of the next day is
+     * reached. Prices of different currencies are not compared. Ties keep the earlier departure.
+     *
+     * @param flightType only flights of this type; {@code null} means all types
+     * @return days departing within {@code [from, to)}, in {@link FareCalendarDay#ORDER}
+     */
+    public List<FareCalendarDay> fareCalendar(final Instant from, final Instant to, final FlightType flightType) {
+        List<FareCalendarDay> calendar = new ArrayList<>();
+        Map<Long, Integer> cheapestRows = new HashMap<>(); // of the current day, by flight type and currency code
+        long day = Long.MIN_VALUE;
+
+        for (int index = lowerBound(from), end = upperBound(to); index < end; index++) {
+            long departureDay = Math.floorDiv(flights.departure(index), SECONDS_PER_DAY);
+            if (departureDay != day) {
+                addCheapestRows(calendar, day, cheapestRows);
+                day = departureDay;
+            }
+
+            FlightType type = flights.flightType(index);
+            if (flightType == null || flightType == type) {
+                long fare = (long) type.ordinal() << Integer.SIZE | currency(index);
+                cheapestRows.merge(fare, index, (cheapest, row) -> price(row) < price(cheapest) ? row : cheapest);
+            }
+        }
+        addCheapestRows(calendar, day, cheapestRows);
+
+        return calendar;
+    }
+
+    private void addCheapestRows(
+        final List<FareCalendarDay> calendar,
+        final long day,
+        final Map<Long, Integer> cheapestRows
+    ) {
+        cheapestRows
+            .values()
+            .stream()
+            .map(index ->
+                new FareCalendarDay(
+                    LocalDate.ofEpochDay(day),
+                    flights.flightType(index),
+                    price(index),
+                    codes.decode(currency(index))
+                )
+            )
+            .sorted(FareCalendarDay.ORDER)
+            .forEach(calendar::add);
+        cheapestRows.clear();
+    }
+
+    /**
+     * @return whether the flight follows the cursor position, see {@link ScheduledFlight#isAfter(FlightCursor)}
+     */
+    public boolean isAfter(final int index, final FlightCursor cursor) {
+        int order = Long.compare(sortValue(cursor.sortBy(), index), cursor.value());
+        if (order == 0) {
+            order = Long.compare(flights.departure(index), cursor.departure());
+        }
+        return order != 0 ? order > 0 : flights.id(index).compareTo(cursor.id()) > 0;
+    }
+
+    /**
+     * @return index of the first flight ordered after the given departure and id, i.e. where a departure sorted page
+     *     following that flight starts
+     */
+    public int upperBound(final long epochSecond, final String id) {
+        int low = lowerBound(epochSecond);
+        int high = flights.size();
+
+        // only the flights departing at the same second are compared by id
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (flights.departure(middle) == epochSecond && flights.id(middle).compareTo(id) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @param fareClassRows rows of each fare class, by fare class ordinal
+     * @param priceOrder    rows sorted by price, then by row, i.e. by departure and id
+     */
+    private record FareIndex(BitSet[] fareClassRows, int[] priceOrder) {
+        static FareIndex of(final FlightColumns flights) {
+            BitSet[] fareClassRows = new BitSet[FlightColumns.FARE_CLASSES.length];
+            Arrays.setAll(fareClassRows, fareClass -> new BitSet(flights.size()));
+
+            // (price, row) pairs packed into longs sort without boxing; rows are non-negative ints
+            long[] pricedRows = new long[flights.size()];
+            for (int row = 0; row < pricedRows.length; row++) {
+                fareClassRows[flights.fareClass(row).ordinal()].set(row);
+                pricedRows[row] = ((long) flights.price(row) << Integer.SIZE) | row;
+            }
+            Arrays.sort(pricedRows);
+
+            int[] priceOrder = Arrays.stream(pricedRows).mapToInt(pricedRow -> (int) pricedRow).toArray();
+
+            return new FareIndex(fareClassRows, priceOrder);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Normalized (origin, destination) pair identifying a bucket of the {@link FlightCatalogue}.
+ */
+public record RouteKey(String origin, String destination) {
+    public static RouteKey of(final String origin, final String destination) {
+        return new RouteKey(normalize(origin), normalize(destination));
+    }
+
+    /**
+     * Mixes the record hash code: airport codes differing in their last letter hash to adjacent values, so the routes
+     * of a dense network form long clusters in the linear probing of {@code Map.copyOf} and similar immutable maps.
+     */
+    @Override
+    public int hashCode() {
+        int hash = (31 * Objects.hashCode(origin) + Objects.hashCode(destination)) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return the given instance when already normalized, so searches for canonical codes allocate no new strings
+     */
+    private static String normalize(final String airportCode) {
+        if (airportCode == null || isNormalized(airportCode)) {
+            return airportCode;
+        }
+        return airportCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isNormalized(final String airportCode) {
+        for (int i = 0; i < airportCode.length(); i++) {
+            char c = airportCode.charAt(i);
+            if (!(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Routes of a {@link FlightCatalogue} as adjacency lists over the {@link CodeTable} codes of the normalized airport
+ * codes: searched airports are encoded once per search, route lookups and connection walks then compare {@code int}
+ * codes instead of airport code strings.
+ * <p>
+ * The adjacency lists of each origin are immutable arrays, so {@link #with(Map)} rebuilds only those of the origins
+ * with changed routes and shares all others with the original network.
+ */
+final class RouteNetwork {
+
+    private static final int[] NO_DESTINATIONS = new int[0];
+
+    private final CodeTable codes;
+    private final int[][] destinations; // by origin code, sorted
+    private final RouteBucket[][] buckets; // by origin code, in the order of the destinations
+    private final int routeCount;
+
+    private RouteNetwork(
+        final CodeTable codes,
+        final int[][] destinations,
+        final RouteBucket[][] buckets,
+        final int routeCount
+    ) {
+        this.codes = codes;
+        this.destinations = destinations;
+        this.buckets = buckets;
+        this.routeCount = routeCount;
+    }
+
+    /**
+     * Encodes the airports of all routes; the code table is only appended to, so the codes stay valid for catalogues
+     * derived by deltas.
+     */
+    static RouteNetwork of(final Map<RouteKey, RouteBucket> routes, final CodeTable codes) {
+        Map<Integer, List<Route>> outgoingRoutes = routes
+            .entrySet()
+            .stream()
+            .map(route ->
+                new Route(
+                    codes.encode(route.getKey().origin()),
+                    codes.encode(route.getKey().destination()),
+                    route.getValue()
+                )
+            )
+            .collect(Collectors.groupingBy(Route::origin));
+
+        int airportCount = codes.size();
+        int[][] destinations = new int[airportCount][];
+        RouteBucket[][] buckets = new RouteBucket[airportCount][];
+        outgoingRoutes.forEach((origin, outgoing) -> {
+            outgoing.sort(Comparator.comparingInt(Route::destination));
+            destinations[origin] = outgoing.stream().mapToInt(Route::destination).toArray();
+            buckets[origin] = outgoing.stream().map(Route::bucket).toArray(RouteBucket[]::new);
+        });
+
+        return new RouteNetwork(codes, destinations, buckets, routes.size());
+    }
+
+    /**
+     * Copies only the references to the adjacency lists of all origins, so the cost of a change grows with the number
+     * of airports and the routes of the changed origins, not with the number of routes.
+     *
+     * @param changes new bucket of each changed route; an empty bucket removes the route
+     * @return network with the changed routes; this network is left unchanged
+     */
+    RouteNetwork with(final Map<RouteKey, RouteBucket> changes) {
+        Map<Integer, Map<Integer, RouteBucket>> changesByOrigin = new HashMap<>();
+        changes.forEach((routeKey, bucket) ->
+            changesByOrigin
+                .computeIfAbsent(codes.encode(routeKey.origin()), origin -> new HashMap<>())
+                .put(codes.encode(routeKey.destination()), bucket)
+        );
+
+        int airportCount = Math.max(codes.size(), destinations.length);
+        int[][] changedDestinations = Arrays.copyOf(destinations, airportCount);
+        RouteBucket[][] changedBuckets = Arrays.copyOf(buckets, airportCount);
+        int changedRouteCount = routeCount;
+
+        for (Map.Entry<Integer, Map<Integer, RouteBucket>> originChanges : changesByOrigin.entrySet()) {
+            int origin = originChanges.getKey();
+            int[] currentDestinations = destinations(origin);
+            TreeMap<Integer, RouteBucket> outgoing = new TreeMap<>();
+            for (int position = 0; position < currentDestinations.length; position++) {
+                outgoing.put(currentDestinations[position], buckets[origin][position]);
+            }
+            changedRouteCount -= outgoing.size();
+
+            originChanges
+                .getValue()
+                .forEach((destination, bucket) -> {
+                    if (bucket.size() == 0) {
+                        outgoing.remove(destination);
+                    } else {
+                        outgoing.put(destination, bucket);
+                    }
+                });
+            changedRouteCount += outgoing.size();
+
+            changedDestinations[origin] = outgoing.isEmpty()
+                ? null
+                : outgoing.keySet().stream().mapToInt(Integer::intValue).toArray();
+            changedBuckets[origin] = outgoing.isEmpty() ? null : outgoing.values().toArray(RouteBucket[]::new);
+        }
+
+        return new RouteNetwork(codes, changedDestinations, changedBuckets, changedRouteCount);
+    }
+
+    /**
+     * @param airport normalized airport code
+     * @return code of the airport; {@link CodeTable#UNKNOWN} when no route of the catalogue serves it
+     */
+    int airport(final String airport) {
+        return codes.find(airport);
+    }
+
+    String decode(final int airport) {
+        return codes.decode(airport);
+    }
+
+    CodeTable codes() {
+        return codes;
+    }
+
+    int routeCount() {
+        return routeCount;
+    }
+
+    void forEachRoute(final BiConsumer<RouteKey, RouteBucket> action) {
+        for (int origin = 0; origin < destinations.length; origin++) {
+            int[] originDestinations = destinations(origin);
+            for (int position = 0; position < originDestinations.length; position++) {
+                action.accept(
+                    new RouteKey(codes.decode(origin), codes.decode(originDestinations[position])),
+                    buckets[origin][position]
+                );
+            }
+        }
+    }
+
+    /**
+     * @return flights of the route; empty bucket when the route is not served
+     */
+    RouteBucket route(final int origin, final int destination) {
+        int position = Arrays.binarySearch(destinations(origin), destination);
+        return position < 0 ? RouteBucket.EMPTY : buckets[origin][position];
+    }
+
+    /**
+     * @return codes of the airports served from the origin, sorted; must not be modified
+     */
+    int[] destinations(final int origin) {
+        return origin < 0 || origin >= destinations.length || destinations[origin] == null
+            ? NO_DESTINATIONS
+            : destinations[origin];
+    }
+
+    /**
+     * @param position position of the route destination in {@link #destinations(int)}
+     */
+    RouteBucket outgoingRoute(final int origin, final int position) {
+        return buckets[origin][position];
+    }
+
+    private record Route(int origin, int destination, RouteBucket bucket) {}
+}
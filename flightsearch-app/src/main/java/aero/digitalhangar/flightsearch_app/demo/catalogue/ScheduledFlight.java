@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Companion of a {@link FlightItem} holding its ISO 8601 timestamps parsed once, at load time.
+ * The public {@link FlightItem} (and thus the JSON contract) stays untouched.
+ *
+ * @param departure departure time in epoch seconds
+ * @param arrival   arrival time in epoch seconds
+ */
+public record ScheduledFlight(FlightItem flightItem, long departure, long arrival) {
+    public static ScheduledFlight of(final FlightItem flightItem) {
+        return new ScheduledFlight(
+            flightItem,
+            Instant.parse(flightItem.departureDateTime()).getEpochSecond(),
+            Instant.parse(flightItem.arrivalDateTime()).getEpochSecond()
+        );
+    }
+
+    /**
+     * @return flight duration in seconds
+     */
+    public long duration() {
+        return arrival - departure;
+    }
+
+    public long sortValue(final FlightSortKey sortKey) {
+        return switch (sortKey) {
+            case DEPARTURE -> departure;
+            case ARRIVAL -> arrival;
+            case PRICE -> flightItem.price();
+            case DURATION -> duration();
+        };
+    }
+
+    /**
+     * @return order by the given key, then by departure time and flight id
+     */
+    public static Comparator<ScheduledFlight> order(final FlightSortKey sortKey) {
+        return Comparator
+            .comparingLong((ScheduledFlight flight) -> flight.sortValue(sortKey))
+            .thenComparingLong(ScheduledFlight::departure)
+            .thenComparing(flight -> flight.flightItem().id());
+    }
+
+    /**
+     * @return whether the flight follows the cursor position in the {@link #order(FlightSortKey) order} of the cursor
+     */
+    public boolean isAfter(final FlightCursor cursor) {
+        int order = Long.compare(sortValue(cursor.sortBy()), cursor.value());
+        if (order == 0) {
+            order = Long.compare(departure, cursor.departure());
+        }
+        return order != 0 ? order > 0 : flightItem.id().compareTo(cursor.id()) > 0;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntToDoubleFunction;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Seeded generator of direct and segmented flights for catalogues of any size; the same parameters always produce the
+ * same flights. Served instead of the mock flights when {@code flightsearch.catalogue.synthetic.flights} is set.
+ * <p>
+ * Airports are ranked by size: the airports of a flight are drawn from a Zipf distribution over the ranks, so with a
+ * {@code routeSkew} of 0 all routes are equally served and with larger exponents the traffic concentrates on routes
+ * between the hubs. Each route has a fixed airline, duration and base price. Flights depart at multiples of five
+ * minutes within {@value #SCHEDULE_DAYS} days from {@link #SCHEDULE_START}, mostly in the morning and evening banks.
+ * Segmented flights consist of two direct legs via a third airport with the airline and fare class of the segmented
+ * flight, the second leg departing 45 minutes to four hours after the first one arrives.
+ *
+ * @param flights        number of generated flights; 0 disables the generator
+ * @param seed           seed of the pseudo-random sequence
+ * @param airports       number of airports, at most {@value #MAX_AIRPORTS}
+ * @param routeSkew      Zipf exponent of the airport size, {@code >= 0}
+ * @param segmentedShare share of segmented flights, within {@code [0, 1]}
+ */
+@ConfigurationProperties("flightsearch.catalogue.synthetic")
+public record SyntheticFlights(int flights, long seed, int airports, double routeSkew, double segmentedShare) {
+    public static final SyntheticFlights NONE = new SyntheticFlights(0, 0, 0, 0, 0);
+
+    public static final Instant SCHEDULE_START = Instant.parse("2025-01-01T00:00:00Z");
+    public static final int SCHEDULE_DAYS = 30;
+    public static final int MAX_AIRPORTS = 26 * 26 * 26;
+
+    private static final String[] AIRLINES = { "LH", "LX", "OS", "SN", "EW", "UA", "AC", "SQ" };
+    private static final FareClass[] FARE_CLASSES = FareClass.values();
+    private static final double[] FARE_CLASS_SHARES = { 0.70, 0.15, 0.10, 0.05 };
+    private static final double[] FARE_CLASS_PRICE_FACTORS = { 1.0, 1.6, 3.5, 6.0 };
+    private static final double[] HOURLY_DEPARTURES = {
+        1, 0, 0, 0, 1, 4, 9, 10, 9, 7, 6, 6, 6, 6, 6, 6, 7, 9, 10, 8, 6, 4, 2, 1,
+    };
+
+    public SyntheticFlights {
+        if (flights < 0) {
+            throw new IllegalArgumentException("flights must not be negative");
+        }
+        if (flights > 0) {
+            int minAirports = segmentedShare > 0 ? 3 : 2;
+            if (airports < minAirports || airports > MAX_AIRPORTS) {
+                throw new IllegalArgumentException(
+                    "airports must be within [" + minAirports + ", " + MAX_AIRPORTS + "]"
+                );
+            }
+            if (!(routeSkew >= 0)) {
+                throw new IllegalArgumentException("routeSkew must not be negative");
+            }
+            if (!(segmentedShare >= 0 && segmentedShare <= 1)) {
+                throw new IllegalArgumentException("segmentedShare must be within [0, 1]");
+            }
+        }
+    }
+
+    public boolean enabled() {
+        return flights > 0;
+    }
+
+    /**
+     * @return code of the airport of the given size rank, {@code AAA} for the largest one
+     */
+    public static String airport(final int rank) {
+        char[] code = { (char) ('A' + rank / (26 * 26)), (char) ('A' + rank / 26 % 26), (char) ('A' + rank % 26) };
+        return new String(code);
+    }
+
+    public List<FlightItem> generate() {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] airportSizes = cumulative(airports, rank -> 1 / Math.pow(rank + 1, routeSkew));
+        double[] departureHours = cumulative(HOURLY_DEPARTURES.length, hour -> HOURLY_DEPARTURES[hour]);
+        String[] airportCodes = new String[airports];
+        Arrays.setAll(airportCodes, SyntheticFlights::airport);
+
+        List<FlightItem> generated = new ArrayList<>(flights);
+        for (int number = 0; number < flights; number++) {
+            int origin = sample(airportSizes, random);
+            int destination = sample(airportSizes, random);
+            while (destination == origin) {
+                destination = sample(airportSizes, random);
+            }
+
+            Instant departure = SCHEDULE_START.plusSeconds(
+                86_400L * random.nextInt(SCHEDULE_DAYS) +
+                3_600L * sample(departureHours, random) +
+                300L * random.nextInt(12)
+            );
+            FareClass fareClass = fareClass(random.nextDouble());
+            double priceFactor = FARE_CLASS_PRICE_FACTORS[fareClass.ordinal()] * (0.8 + 0.4 * random.nextDouble());
+
+            if (random.nextDouble() < segmentedShare) {
+                int via = sample(airportSizes, random);
+                while (via == origin || via == destination) {
+                    via = sample(airportSizes, random);
+                }
+                RouteProfile firstRoute = route(airportCodes[origin], airportCodes[via]);
+                RouteProfile secondRoute = route(airportCodes[via], airportCodes[destination]);
+                long connectionSeconds = 2_700L + 300L * random.nextInt(40);
+                generated.add(
+                    segmented(number, firstRoute, secondRoute, departure, connectionSeconds, fareClass, priceFactor)
+                );
+            } else {
+                RouteProfile route = route(airportCodes[origin], airportCodes[destination]);
+                generated.add(leg(route.airline() + number, route, departure, fareClass, priceFactor));
+            }
+        }
+        return generated;
+    }
+
+    private static FlightItem segmented(
+        final int number,
+        final RouteProfile firstRoute,
+        final RouteProfile secondRoute,
+        final Instant departure,
+        final long connectionSeconds,
+        final FareClass fareClass,
+        final double priceFactor
+    ) {
+        String id = firstRoute.airline() + number;
+        FlightItem firstLeg = leg(id + "-C1", firstRoute, departure, fareClass, priceFactor);
+        Instant secondDeparture = Instant.parse(firstLeg.arrivalDateTime()).plusSeconds(connectionSeconds);
+        FlightItem secondLeg = leg(
+            id + "-C2",
+            secondRoute.operatedBy(firstRoute.airline()),
+            secondDeparture,
+            fareClass,
+            priceFactor
+        );
+
+        return new FlightItem(
+            id,
+            firstLeg.departureDateTime(),
+            secondLeg.arrivalDateTime(),
+            firstLeg.origin(),
+            secondLeg.destination(),
+            firstRoute.airline(),
+            firstLeg.price() + secondLeg.price(),
+            "USD",
+            fareClass,
+            FlightType.SEGMENTED,
+            new FlightItem[] { firstLeg, secondLeg }
+        );
+    }
+
+    private static FlightItem leg(
+        final String id,
+        final RouteProfile route,
+        final Instant departure,
+        final FareClass fareClass,
+        final double priceFactor
+    ) {
+        return new FlightItem(
+            id,
+            departure.toString(),
+            departure.plusSeconds(60L * route.durationMinutes()).toString(),
+            route.origin(),
+            route.destination(),
+            route.airline(),
+            (int) (route.basePrice() * priceFactor),
+            "USD",
+            fareClass,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    /**
+     * Route properties are derived from the seed and the route alone, so they are the same for all of its flights.
+     */
+    private RouteProfile route(final String origin, final String destination) {
+        long routeHash = new SplittableRandom(seed ^ (origin + destination).hashCode()).nextLong();
+        int durationMinutes = 60 + 5 * (int) Math.floorMod(routeHash, 132L);
+        String airline = AIRLINES[(int) Math.floorMod(routeHash >>> 16, (long) AIRLINES.length)];
+
+        return new RouteProfile(origin, destination, airline, durationMinutes, 5_000 + durationMinutes * 150);
+    }
+
+    /**
+     * @return index of the weight the sample falls on; indices of zero weights are never returned
+     */
+    private static int sample(final double[] cumulativeWeights, final SplittableRandom random) {
+        double sample = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, sample);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (cumulativeWeights[index] <= sample) {
+            index++; // sample on a boundary belongs to the next non-empty weight
+        }
+        return index;
+    }
+
+    private static double[] cumulative(final int size, final IntToDoubleFunction weight) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += weight.applyAsDouble(i);
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static FareClass fareClass(final double sample) {
+        double share = 0;
+        for (int i = 0; i < FARE_CLASSES.length - 1; i++) {
+            share += FARE_CLASS_SHARES[i];
+            if (sample < share) {
+                return FARE_CLASSES[i];
+            }
+        }
+        return FARE_CLASSES[FARE_CLASSES.length - 1];
+    }
+
+    private record RouteProfile(String origin, String destination, String airline, int durationMinutes, int basePrice) {
+        RouteProfile operatedBy(final String operatingAirline) {
+            return new RouteProfile(origin, destination, operatingAirline, durationMinutes, basePrice);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Selects the {@code k} first elements of a given order with a bounded heap: {@code O(n log k)} instead of sorting all
+ * {@code n} offered elements.
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap; // head is the last of the kept elements
+
+    public TopK(final int k, final Comparator<? super T> order) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+
+        this.k = k;
+        this.order = order;
+        this.heap = new PriorityQueue<>(k, Collections.reverseOrder(order));
+    }
+
+    public static <T> Collector<T, ?, List<T>> collector(final int k, final Comparator<? super T> order) {
+        return Collector.of(() -> new TopK<T>(k, order), TopK::offer, TopK::merge, TopK::toSortedList);
+    }
+
+    public void offer(final T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isFull() {
+        return heap.size() == k;
+    }
+
+    /**
+     * @return last of the kept elements in the selection order; {@code null} when empty
+     */
+    public T last() {
+        return heap.peek();
+    }
+
+    public List<T> toSortedList() {
+        List<T> elements = new ArrayList<>(heap);
+        elements.sort(order);
+
+        return elements;
+    }
+
+    private TopK<T> merge(final TopK<T> other) {
+        other.heap.forEach(this::offer);
+        return this;
+    }
+}
@@ -13,8 +13,11 @@ import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
 import aero.digitalhangar.flightsearch_app.commons.error.model.ProcessingError;
 import aero.digitalhangar.flightsearch_app.commons.logging.Severity;
 import aero.digitalhangar.flightsearch_app.demo.model.BookingNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightProvidersUnavailableException;
 import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.model.InvalidCursorException;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceNotFoundException;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
@@ -49,6 +52,56 @@ public class CustomExceptionHandler implements Ordered {
             );
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidCursorException(final InvalidCursorException cause) {
+        log.warn(
+            "{} - {} - {} - {}",
+            cause.getErrorId().getDescription(),
+            cause.getLocalizedMessage(),
+            severity(Severity.MINOR),
+            errorId(cause.getErrorId())
+        );
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(
+                ProcessingError
+                    .builder(cause.getErrorId())
+                    .description(cause.getLocalizedMessage())
+                    .build()
+                    .toErrorMessage()
+            );
+    }
+
+    @ExceptionHandler(FlightProvidersUnavailableException.class)
+    public ResponseEntity<ErrorMessage> handleFlightProvidersUnavailableException(
+        final FlightProvidersUnavailableException cause
+    ) {
+        log.error(
+            "{} - {} - {} - {}",
+            cause.getErrorId().getDescription(),
+            cause.getLocalizedMessage(),
+            severity(Severity.MAJOR),
+            errorId(cause.getErrorId())
+        );
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(
+                ErrorMessage
+                    .builder()
+                    .type(ErrorMessage.TypeEnum.E)
+                    .retryIndicator(Boolean.TRUE) // providers may answer in time on the next attempt
+                    .processingErrors(
+                        Set.of(
+                            ProcessingError
+                                .builder(cause.getErrorId())
+                                .description(cause.getLocalizedMessage())
+                                .build()
+                        )
+                    )
+                    .build()
+            );
+    }
+
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE;
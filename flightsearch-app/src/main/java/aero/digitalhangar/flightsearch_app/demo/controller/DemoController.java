@@ -6,6 +6,7 @@
 package aero.digitalhangar.flightsearch_app.demo.controller;
 
 import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
+import aero.digitalhangar.flightsearch_app.commons.web.ETags;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceItem;
 import aero.digitalhangar.flightsearch_app.demo.service.DemoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,10 +18,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Services", description = "Controller provisioning booking services operations")
@@ -37,6 +43,7 @@ public class DemoController {
         description = "To retrieve the list of service items, the `bookingId` must provided",
         responses = {
             @ApiResponse(description = "List of service items; might be an empty list", responseCode = "200"),
+            @ApiResponse(description = "Service items held by the client are unchanged", responseCode = "304"),
             @ApiResponse(
                 description = "Provided `bookingId` parameter was not valid",
                 responseCode = "400",
@@ -55,14 +62,25 @@ public class DemoController {
         }
     )
     @GetMapping("/bookings/{bookingId}/services")
-    public List<ServiceItem> getServicesFromBooking(
+    public ResponseEntity<List<ServiceItem>> getServicesFromBooking(
         @Parameter(
             description = "Identifier of the booking for which, services should be retrieved",
             required = true,
             example = "ABCDEF"
-        ) @Pattern(regexp = "[a-zA-Z0-9]{6}") @PathVariable("bookingId") final String bookingId
+        ) @Pattern(regexp = "[a-zA-Z0-9]{6}") @PathVariable("bookingId") final String bookingId,
+        @Parameter(
+            description = "Entity tags of service item lists held by the client"
+        ) @RequestHeader(HttpHeaders.IF_NONE_MATCH) final Optional<String> ifNoneMatch
     ) {
-        return demoService.getServicesFromBooking(bookingId);
+        Optional<String> eTag = demoService.eTag(bookingId);
+        if (eTag.isPresent() && ETags.isNotModified(ifNoneMatch.orElse(null), eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+        }
+        List<ServiceItem> services = demoService.getServicesFromBooking(bookingId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(services);
     }
 
     @SuppressWarnings("java:S5867") //Unicode-aware characters are not handled
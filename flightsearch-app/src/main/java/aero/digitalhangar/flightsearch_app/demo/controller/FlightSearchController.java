@@ -5,39 +5,107 @@
  */
 package aero.digitalhangar.flightsearch_app.demo.controller;
 
+import static aero.digitalhangar.flightsearch_app.commons.logging.CustomLoggingArguments.errorId;
+import static aero.digitalhangar.flightsearch_app.commons.logging.CustomLoggingArguments.severity;
+import static aero.digitalhangar.flightsearch_app.commons.logging.CustomLoggingArguments.stack;
+
+import aero.digitalhangar.flightsearch_app.commons.error.handler.GenericExceptionHandler;
+import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorIdReturningException;
 import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
+import aero.digitalhangar.flightsearch_app.commons.error.model.ProcessingError;
+import aero.digitalhangar.flightsearch_app.commons.error.model.UniqueError;
+import aero.digitalhangar.flightsearch_app.commons.logging.Severity;
+import aero.digitalhangar.flightsearch_app.commons.web.ETags;
+import aero.digitalhangar.flightsearch_app.commons.web.header.HeaderConstants;
+import aero.digitalhangar.flightsearch_app.demo.model.FareCalendarDay;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightBatchRequest;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightBatchResponse;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightBatchResult;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
 import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchQuery;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
 import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.service.FareCalendarService;
 import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
-import lombok.RequiredArgsConstructor;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Flights", description = "Controller provisioning flight search operations")
-@RequiredArgsConstructor
+@Slf4j
 @Validated
 @RestController
 public class FlightSearchController {
 
     private final FlightSearchService flightSearchService;
+    private final FareCalendarService fareCalendarService;
+    private final Executor batchExecutor;
+    private final Validator validator;
+
+    public FlightSearchController(
+        final FlightSearchService flightSearchService,
+        final FareCalendarService fareCalendarService,
+        final @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor batchExecutor,
+        final Validator validator
+    ) {
+        this.flightSearchService = flightSearchService;
+        this.fareCalendarService = fareCalendarService;
+        this.batchExecutor = batchExecutor;
+        this.validator = validator;
+    }
 
     @SuppressWarnings("java:S5867") //Unicode-aware characters are not handled
     @Operation(
         summary = "Retrieves flights from search",
-        description = "To retrieve the list of service items, at least the `origin` and `destination` must be provided. Other search parameters are optional.",
+        description = "To retrieve the list of service items, at least the `origin` and `destination` must be provided; airport group codes such as `LON` or `NYC` search all routes between their airports. Other search parameters are optional; departure filters narrow down a single departure window, fare class and price filters apply before `sort` and `limit` select the returned flights. A full page carries a `Next-Cursor` header; passing it as `cursor` returns the following page. Cached lists carry an `ETag`; sending it as `If-None-Match` answers 304 without searching while the flights are unchanged.",
         responses = {
-            @ApiResponse(description = "List of flights", responseCode = "200"),
+            @ApiResponse(
+                description = "List of flights",
+                responseCode = "200",
+                headers = @Header(
+                    name = HeaderConstants.NEXT_CURSOR,
+                    description = "Cursor of the following page, present when the page is full"
+                )
+            ),
+            @ApiResponse(description = "Flights held by the client are unchanged", responseCode = "304"),
             @ApiResponse(
                 description = "Provided search parameter was not valid",
                 responseCode = "400",
@@ -53,31 +121,398 @@ public class FlightSearchController {
                 responseCode = "500",
                 content = @Content(schema = @Schema(implementation = ErrorMessage.class))
             ),
+            @ApiResponse(
+                description = "No flight provider answered in time",
+                responseCode = "503",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
         }
     )
     @GetMapping("/flights")
-    public List<FlightItem> getFlightsFromSearch(
-        @Parameter(description = "Origin airport code", required = true, example = "FRA") @Size(
+    public ResponseEntity<List<FlightItem>> getFlightsFromSearch(
+        @Parameter(description = "Origin airport or airport group code", required = true, example = "FRA") @Size(
             min = 3,
             max = 3
         ) String origin,
-        @Parameter(description = "Destination airport code", required = true, example = "MSP") @Size(
+        @Parameter(description = "Destination airport or airport group code", required = true, example = "MSP") @Size(
             min = 3,
             max = 3
         ) String destination,
         @Parameter(
-            description = "Departure date in ISO 8601 format",
+            description = "Exact departure date & time in ISO 8601 format",
             example = "2022-01-01T12:00:00Z"
-        ) Optional<String> departureDate,
+        ) Optional<Instant> departureDate,
         @Parameter(
             description = "Return date in ISO 8601 format",
             example = "2022-01-01T14:00:00Z"
-        ) Optional<String> returnDate,
+        ) Optional<Instant> returnDate,
+        @Parameter(
+            description = "Type of flight",
+            schema = @Schema(type = "string", allowableValues = { "direct", "segmented" }, example = "direct")
+        ) @RequestParam Optional<FlightType> flightType,
+        @Parameter(
+            description = "Fare classes of the flights, repeated or comma separated",
+            schema = @Schema(type = "string", allowableValues = { "E", "P", "B", "F" }, example = "B")
+        ) @RequestParam Optional<Set<FareClass>> fareClass,
+        @Parameter(description = "Lowest price (inclusive)", example = "10000") @Min(0) Optional<Integer> minPrice,
+        @Parameter(description = "Highest price (inclusive)", example = "50000") @Min(0) Optional<Integer> maxPrice,
+        @Parameter(
+            description = "Departure day (UTC) in ISO 8601 format",
+            example = "2022-01-01"
+        ) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> departureDay,
+        @Parameter(
+            description = "Earliest departure date & time (inclusive) in ISO 8601 format",
+            example = "2022-01-01T06:00:00Z"
+        ) Optional<Instant> departureFrom,
+        @Parameter(
+            description = "Latest departure date & time (inclusive) in ISO 8601 format",
+            example = "2022-01-01T18:00:00Z"
+        ) Optional<Instant> departureTo,
+        @Parameter(
+            description = "Order of the flights, ties are resolved by departure",
+            schema = @Schema(
+                type = "string",
+                allowableValues = { "departure", "arrival", "price", "duration" },
+                example = "price"
+            )
+        ) @RequestParam Optional<FlightSortKey> sort,
+        @Parameter(
+            description = "Maximum number of flights returned",
+            example = "10"
+        ) @Min(1) @Max(FlightSearchCriteria.MAX_LIMIT) Optional<Integer> limit,
+        @Parameter(
+            description = "Opaque cursor from the `Next-Cursor` header of the previous page"
+        ) Optional<String> cursor,
+        @Parameter(
+            description = "Entity tags of flight lists held by the client"
+        ) @RequestHeader(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch
+    ) {
+        FlightSearchCriteria criteria = criteria(
+            origin,
+            destination,
+            departureDate,
+            returnDate,
+            flightType,
+            fareClass,
+            minPrice,
+            maxPrice,
+            departureDay,
+            departureFrom,
+            departureTo,
+            sort,
+            limit,
+            cursor
+        );
+        Optional<String> eTag = flightSearchService.eTag(criteria);
+        if (eTag.isPresent() && ETags.isNotModified(ifNoneMatch.orElse(null), eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+        }
+        List<FlightItem> flights = flightSearchService.getFlightsFromSearch(criteria);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        nextCursor(criteria, flights).ifPresent(nextCursor -> response.header(HeaderConstants.NEXT_CURSOR, nextCursor));
+        return response.body(flights);
+    }
+
+    @SuppressWarnings("java:S5867") //Unicode-aware characters are not handled
+    @Operation(
+        summary = "Streams flights from search",
+        description = "Same search as the list of flights, written as newline delimited JSON while the flights are found. Selected with `Accept: application/x-ndjson`; `limit` may go up to 10000.",
+        responses = {
+            @ApiResponse(
+                description = "Flights, one JSON object per line",
+                responseCode = "200",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = FlightItem.class)
+                )
+            ),
+            @ApiResponse(
+                description = "Provided search parameter was not valid",
+                responseCode = "400",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+            @ApiResponse(
+                description = "Flight for provided search parameters was not found",
+                responseCode = "404",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+            @ApiResponse(
+                description = "Internal server error during processing",
+                responseCode = "500",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+        }
+    )
+    @GetMapping(value = "/flights", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Stream<FlightItem> streamFlightsFromSearch(
+        @Parameter(description = "Origin airport or airport group code", required = true, example = "FRA") @Size(
+            min = 3,
+            max = 3
+        ) String origin,
+        @Parameter(description = "Destination airport or airport group code", required = true, example = "MSP") @Size(
+            min = 3,
+            max = 3
+        ) String destination,
+        @Parameter(
+            description = "Exact departure date & time in ISO 8601 format",
+            example = "2022-01-01T12:00:00Z"
+        ) Optional<Instant> departureDate,
+        @Parameter(
+            description = "Return date in ISO 8601 format",
+            example = "2022-01-01T14:00:00Z"
+        ) Optional<Instant> returnDate,
+        @Parameter(
+            description = "Type of flight",
+            schema = @Schema(type = "string", allowableValues = { "direct", "segmented" }, example = "direct")
+        ) @RequestParam Optional<FlightType> flightType,
+        @Parameter(
+            description = "Fare classes of the flights, repeated or comma separated",
+            schema = @Schema(type = "string", allowableValues = { "E", "P", "B", "F" }, example = "B")
+        ) @RequestParam Optional<Set<FareClass>> fareClass,
+        @Parameter(description = "Lowest price (inclusive)", example = "10000") @Min(0) Optional<Integer> minPrice,
+        @Parameter(description = "Highest price (inclusive)", example = "50000") @Min(0) Optional<Integer> maxPrice,
+        @Parameter(
+            description = "Departure day (UTC) in ISO 8601 format",
+            example = "2022-01-01"
+        ) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> departureDay,
+        @Parameter(
+            description = "Earliest departure date & time (inclusive) in ISO 8601 format",
+            example = "2022-01-01T06:00:00Z"
+        ) Optional<Instant> departureFrom,
+        @Parameter(
+            description = "Latest departure date & time (inclusive) in ISO 8601 format",
+            example = "2022-01-01T18:00:00Z"
+        ) Optional<Instant> departureTo,
+        @Parameter(
+            description = "Order of the flights, ties are resolved by departure",
+            schema = @Schema(
+                type = "string",
+                allowableValues = { "departure", "arrival", "price", "duration" },
+                example = "price"
+            )
+        ) @RequestParam Optional<FlightSortKey> sort,
+        @Parameter(
+            description = "Maximum number of flights streamed",
+            example = "1000"
+        ) @Min(1) @Max(FlightSearchCriteria.MAX_STREAM_LIMIT) Optional<Integer> limit,
+        @Parameter(
+            description = "Opaque cursor from the `Next-Cursor` header of a previous page"
+        ) Optional<String> cursor
+    ) {
+        return flightSearchService.streamFlightsFromSearch(
+            criteria(
+                origin,
+                destination,
+                departureDate,
+                returnDate,
+                flightType,
+                fareClass,
+                minPrice,
+                maxPrice,
+                departureDay,
+                departureFrom,
+                departureTo,
+                sort,
+                limit,
+                cursor
+            )
+        );
+    }
+
+    @Operation(
+        summary = "Retrieves flights for several searches at once",
+        description = "Each search takes the parameters of the single search and is evaluated in parallel with the others. Results are returned in the order of the searches; a search failing, e.g. on an invalid parameter or without any flight found, carries the error it would have been answered with on its own and does not fail the batch.",
+        responses = {
+            @ApiResponse(description = "Outcome of each search", responseCode = "200"),
+            @ApiResponse(
+                description = "Provided batch was not valid",
+                responseCode = "400",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+            @ApiResponse(
+                description = "Internal server error during processing",
+                responseCode = "500",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+        }
+    )
+    @PostMapping(value = "/flights/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public FlightBatchResponse getFlightsFromBatch(@Valid @RequestBody final FlightBatchRequest batch) {
+        List<CompletableFuture<FlightBatchResult>> results = batch
+            .queries()
+            .stream()
+            .map(query -> CompletableFuture.supplyAsync(() -> search(query), batchExecutor))
+            .toList();
+
+        return new FlightBatchResponse(results.stream().map(CompletableFuture::join).toList());
+    }
+
+    @SuppressWarnings("java:S5867") //Unicode-aware characters are not handled
+    @Operation(
+        summary = "Retrieves the cheapest flight price per departure day",
+        description = "For the route given by `origin` and `destination`, or every route between their airports for airport group codes, the lowest price of each departure day (UTC), flight type and currency within `days` days from `departureDay` on. Days without flights are left out.",
+        responses = {
+            @ApiResponse(
+                description = "Lowest prices, ordered by day, then by flight type, then by currency",
+                responseCode = "200"
+            ),
+            @ApiResponse(
+                description = "Provided calendar parameter was not valid",
+                responseCode = "400",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+            @ApiResponse(
+                description = "No flight departs within the requested days",
+                responseCode = "404",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+            @ApiResponse(
+                description = "Internal server error during processing",
+                responseCode = "500",
+                content = @Content(schema = @Schema(implementation = ErrorMessage.class))
+            ),
+        }
+    )
+    @GetMapping("/flights/calendar")
+    public List<FareCalendarDay> getFareCalendar(
+        @Parameter(description = "Origin airport or airport group code", required = true, example = "FRA") @Size(
+            min = 3,
+            max = 3
+        ) String origin,
+        @Parameter(description = "Destination airport or airport group code", required = true, example = "MSP") @Size(
+            min = 3,
+            max = 3
+        ) String destination,
+        @Parameter(
+            description = "First departure day (UTC) in ISO 8601 format",
+            required = true,
+            example = "2022-01-01"
+        ) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDay,
+        @Parameter(
+            description = "Number of days covered by the calendar",
+            example = "30"
+        ) @Min(1) @Max(FareCalendarDay.MAX_DAYS) Optional<Integer> days,
         @Parameter(
             description = "Type of flight",
             schema = @Schema(type = "string", allowableValues = { "direct", "segmented" }, example = "direct")
         ) @RequestParam Optional<FlightType> flightType
     ) {
-        return flightSearchService.getFlightsFromSearch(origin, destination, departureDate, returnDate, flightType);
+        LocalDate endDay = departureDay.plusDays(days.orElse(FareCalendarDay.DEFAULT_DAYS));
+
+        return fareCalendarService.getFareCalendar(
+            FlightSearchCriteria
+                .builder()
+                .origin(origin)
+                .destination(destination)
+                .departingWithin(
+                    departureDay.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                    endDay.atStartOfDay(ZoneOffset.UTC).toInstant()
+                )
+                .flightType(flightType.orElse(null))
+                .build()
+        );
+    }
+
+    private FlightBatchResult search(final FlightSearchQuery query) {
+        try {
+            Set<ConstraintViolation<FlightSearchQuery>> violations = validator.validate(query);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            FlightSearchCriteria criteria = criteria(query);
+            List<FlightItem> flights = flightSearchService.getFlightsFromSearch(criteria);
+
+            return FlightBatchResult.found(flights, nextCursor(criteria, flights).orElse(null));
+        } catch (RuntimeException e) {
+            return FlightBatchResult.failed(errorOf(e));
+        }
+    }
+
+    private static ErrorMessage errorOf(final RuntimeException cause) {
+        if (cause instanceof ConstraintViolationException exception) {
+            return GenericExceptionHandler.toErrorMessage(exception);
+        }
+        if (cause instanceof ErrorIdReturningException exception) {
+            return ProcessingError
+                .builder(exception.getErrorId())
+                .description(cause.getLocalizedMessage())
+                .build()
+                .toErrorMessage();
+        }
+        log.error(
+            cause.getLocalizedMessage(),
+            stack(cause),
+            severity(Severity.MAJOR),
+            errorId(UniqueError.UNDEFINED_INTERNAL_ERROR)
+        );
+        return ProcessingError.builder(UniqueError.INTERNAL_ERROR).build().toErrorMessage();
+    }
+
+    private static Optional<String> nextCursor(final FlightSearchCriteria criteria, final List<FlightItem> flights) {
+        return flights.size() == criteria.limit()
+            ? Optional.of(FlightCursor.after(criteria.sortBy(), flights.getLast()).encode())
+            : Optional.empty();
+    }
+
+    private static FlightSearchCriteria criteria(final FlightSearchQuery query) {
+        return criteria(
+            query.origin(),
+            query.destination(),
+            Optional.ofNullable(query.departureDate()),
+            Optional.ofNullable(query.returnDate()),
+            Optional.ofNullable(query.flightType()),
+            Optional.ofNullable(query.fareClass()),
+            Optional.ofNullable(query.minPrice()),
+            Optional.ofNullable(query.maxPrice()),
+            Optional.ofNullable(query.departureDay()),
+            Optional.ofNullable(query.departureFrom()),
+            Optional.ofNullable(query.departureTo()),
+            Optional.ofNullable(query.sort()),
+            Optional.ofNullable(query.limit()),
+            Optional.ofNullable(query.cursor())
+        );
+    }
+
+    @SuppressWarnings("java:S107") // mirrors the request parameters
+    private static FlightSearchCriteria criteria(
+        final String origin,
+        final String destination,
+        final Optional<Instant> departureDate,
+        final Optional<Instant> returnDate,
+        final Optional<FlightType> flightType,
+        final Optional<Set<FareClass>> fareClasses,
+        final Optional<Integer> minPrice,
+        final Optional<Integer> maxPrice,
+        final Optional<LocalDate> departureDay,
+        final Optional<Instant> departureFrom,
+        final Optional<Instant> departureTo,
+        final Optional<FlightSortKey> sort,
+        final Optional<Integer> limit,
+        final Optional<String> cursor
+    ) {
+        FlightSearchCriteria.FlightSearchCriteriaBuilder criteria = FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .arrival(returnDate.orElse(null))
+            .flightType(flightType.orElse(null))
+            .fareClasses(fareClasses.orElse(null))
+            .minPrice(minPrice.orElse(null))
+            .maxPrice(maxPrice.orElse(null))
+            .sortBy(sort.orElse(null))
+            .limit(limit.orElse(null))
+            .after(cursor.map(FlightCursor::decode).orElse(null));
+
+        departureDate.ifPresent(criteria::departingAt);
+        departureDay.ifPresent(day ->
+            criteria.departingWithin(
+                day.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+            )
+        );
+        criteria.departingWithin(departureFrom.orElse(null), departureTo.map(to -> to.plusNanos(1)).orElse(null));
+
+        return criteria.build();
     }
 }
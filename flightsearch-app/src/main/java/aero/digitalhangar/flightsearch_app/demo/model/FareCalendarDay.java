@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+@SuppressWarnings("java:S1105") //auto-formatting
+@Schema(description = "Cheapest flight of a departure day, flight type and currency")
+public record FareCalendarDay(
+    @Schema(description = "Departure day (UTC) in ISO 8601 format", example = "2022-01-01") LocalDate day,
+    @Schema(description = "type", example = "direct") FlightType flightType,
+    @Schema(description = "lowest price in cents", example = "10000") int price,
+    @Schema(description = "currency code of the lowest price", example = "USD") String currency
+) {
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+
+    /**
+     * Order of the calendar: by day, then by flight type, then by currency.
+     */
+    public static final Comparator<FareCalendarDay> ORDER = Comparator
+        .comparing(FareCalendarDay::day)
+        .thenComparing(FareCalendarDay::flightType)
+        .thenComparing(FareCalendarDay::currency);
+}
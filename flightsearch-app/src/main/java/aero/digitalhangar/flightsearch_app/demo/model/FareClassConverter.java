@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FareClassConverter implements Converter<String, FareClass> {
+
+    @Override
+    public FareClass convert(String source) {
+        return switch (source.toLowerCase()) {
+            case "e", "economy" -> FareClass.E;
+            case "p", "premium economy" -> FareClass.P;
+            case "b", "business" -> FareClass.B;
+            case "f", "first" -> FareClass.F;
+            default -> throw new IllegalArgumentException("Unknown FareClass: " + source);
+        };
+    }
+}
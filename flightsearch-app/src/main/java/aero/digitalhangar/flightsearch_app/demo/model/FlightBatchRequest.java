@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Flight searches evaluated together")
+public record FlightBatchRequest(
+    @Schema(description = "Searches, answered in the same order; each search is validated on its own")
+    @NotEmpty
+    @Size(max = FlightBatchRequest.MAX_QUERIES)
+    List<@NotNull FlightSearchQuery> queries
+) {
+    public static final int MAX_QUERIES = 50;
+}
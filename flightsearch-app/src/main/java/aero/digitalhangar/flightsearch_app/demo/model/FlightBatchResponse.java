@@ -0,0 +1,15 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Outcomes of batched flight searches")
+public record FlightBatchResponse(
+    @Schema(description = "Outcome of each search, in the order of the requested searches")
+    List<FlightBatchResult> results
+) {}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/**
+ * Outcome of one search of a batch: either the found flights or the error a single search would have answered with.
+ */
+@SuppressWarnings("java:S1105") //auto-formatting
+@Schema(description = "Outcome of a search within a batch; either `flights` or `error` is present")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FlightBatchResult(
+    @Schema(description = "Found flights") List<FlightItem> flights,
+    @Schema(description = "Cursor of the following page, present when the page is full") String nextCursor,
+    @Schema(description = "Reason the search failed") ErrorMessage error
+) {
+    public static FlightBatchResult found(final List<FlightItem> flights, final String nextCursor) {
+        return new FlightBatchResult(flights, nextCursor, null);
+    }
+
+    public static FlightBatchResult failed(final ErrorMessage error) {
+        return new FlightBatchResult(null, null, error);
+    }
+}
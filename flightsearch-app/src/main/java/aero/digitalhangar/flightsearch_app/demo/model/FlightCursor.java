@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of the last returned flight in the result order; the next page starts right after it.
+ * Encoded into an opaque URL-safe token, so clients do not depend on its layout.
+ *
+ * @param sortBy    order the position belongs to
+ * @param value     sort key value of the last flight
+ * @param departure departure time of the last flight in epoch seconds
+ * @param id        id of the last flight
+ */
+public record FlightCursor(FlightSortKey sortBy, long value, long departure, String id) {
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 2 + 2 * Long.BYTES;
+
+    public static FlightCursor after(final FlightSortKey sortBy, final FlightItem flight) {
+        long departure = Instant.parse(flight.departureDateTime()).getEpochSecond();
+        long arrival = Instant.parse(flight.arrivalDateTime()).getEpochSecond();
+        long value =
+            switch (sortBy) {
+                case DEPARTURE -> departure;
+                case ARRIVAL -> arrival;
+                case PRICE -> flight.price();
+                case DURATION -> arrival - departure;
+            };
+
+        return new FlightCursor(sortBy, value, departure, flight.id());
+    }
+
+    public String encode() {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer
+            .allocate(HEADER_BYTES + idBytes.length)
+            .put(VERSION)
+            .put((byte) sortBy.ordinal())
+            .putLong(value)
+            .putLong(departure)
+            .put(idBytes);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static FlightCursor decode(final String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.remaining() <= HEADER_BYTES || buffer.get() != VERSION) {
+                throw new InvalidCursorException("unknown format");
+            }
+
+            int sortBy = buffer.get();
+            if (sortBy < 0 || sortBy >= FlightSortKey.values().length) {
+                throw new InvalidCursorException("unknown order");
+            }
+            long value = buffer.getLong();
+            long departure = buffer.getLong();
+            byte[] idBytes = new byte[buffer.remaining()];
+            buffer.get(idBytes);
+
+            return new FlightCursor(
+                FlightSortKey.values()[sortBy],
+                value,
+                departure,
+                new String(idBytes, StandardCharsets.UTF_8)
+            );
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new InvalidCursorException("unknown format");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+import lombok.Builder;
+
+/**
+ * Parsed flight search parameters; {@code null} components are not restricting the search.
+ *
+ * @param departureFrom first instant (inclusive) of the departure window
+ * @param departureTo   end (exclusive) of the departure window
+ * @param arrival       exact arrival instant
+ * @param fareClasses   flights sold in one of these fare classes; {@code null} or empty means all fare classes
+ * @param minPrice      lowest price (inclusive)
+ * @param maxPrice      highest price (inclusive)
+ * @param sortBy        order of the results; departure time if not provided
+ * @param limit         maximum number of results; {@value #DEFAULT_LIMIT} if not provided
+ * @param after         position of the last flight of the previous page; results start right after it
+ */
+@Builder(toBuilder = true)
+public record FlightSearchCriteria(
+    String origin,
+    String destination,
+    Instant departureFrom,
+    Instant departureTo,
+    Instant arrival,
+    FlightType flightType,
+    Set<FareClass> fareClasses,
+    Integer minPrice,
+    Integer maxPrice,
+    FlightSortKey sortBy,
+    Integer limit,
+    FlightCursor after
+) {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_STREAM_LIMIT = 10_000;
+
+    public FlightSearchCriteria {
+        if (after != null && sortBy != null && after.sortBy() != sortBy) {
+            throw new InvalidCursorException("issued for " + after.sortBy().name().toLowerCase() + " order");
+        }
+        sortBy = after != null ? after.sortBy() : sortBy == null ? FlightSortKey.DEPARTURE : sortBy;
+        limit = limit == null ? DEFAULT_LIMIT : limit;
+        fareClasses = fareClasses == null || fareClasses.isEmpty() ? null : Set.copyOf(fareClasses);
+    }
+
+    /**
+     * @return whether a flight of the given fare class and price passes the fare class and price filters
+     */
+    public boolean matchesFare(final FareClass fareClass, final int price) {
+        return (
+            (fareClasses == null || fareClasses.contains(fareClass)) &&
+            (minPrice == null || price >= minPrice) &&
+            (maxPrice == null || price <= maxPrice)
+        );
+    }
+
+    /**
+     * @return equivalent criteria with upper-cased airport codes, e.g. to key caches
+     */
+    public FlightSearchCriteria normalized() {
+        return toBuilder()
+            .origin(origin == null ? null : origin.toUpperCase(Locale.ROOT))
+            .destination(destination == null ? null : destination.toUpperCase(Locale.ROOT))
+            .build();
+    }
+
+    @SuppressWarnings("unused") // completed by lombok
+    public static class FlightSearchCriteriaBuilder {
+
+        /**
+         * Narrows the departure window to {@code [from, to)}; {@code null} bound leaves that side open.
+         * Subsequent calls intersect the windows.
+         */
+        public FlightSearchCriteriaBuilder departingWithin(final Instant from, final Instant to) {
+            if (from != null && (departureFrom == null || from.isAfter(departureFrom))) {
+                departureFrom = from;
+            }
+            if (to != null && (departureTo == null || to.isBefore(departureTo))) {
+                departureTo = to;
+            }
+            return this;
+        }
+
+        public FlightSearchCriteriaBuilder departingAt(final Instant departure) {
+            return departingWithin(departure, departure.plusNanos(1));
+        }
+    }
+}
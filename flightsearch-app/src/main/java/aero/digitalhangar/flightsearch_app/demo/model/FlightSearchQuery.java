@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+@SuppressWarnings("java:S1105") //auto-formatting
+@Schema(description = "Flight search within a batch, with the same meaning as the parameters of a single search")
+public record FlightSearchQuery(
+    @Schema(description = "Origin airport or airport group code", example = "FRA") @Size(min = 3, max = 3)
+    String origin,
+    @Schema(description = "Destination airport or airport group code", example = "MSP")
+    @Size(min = 3, max = 3)
+    String destination,
+    @Schema(description = "Exact departure date & time in ISO 8601 format", example = "2022-01-01T12:00:00Z")
+    Instant departureDate,
+    @Schema(description = "Return date in ISO 8601 format", example = "2022-01-01T14:00:00Z") Instant returnDate,
+    @Schema(description = "Type of flight", example = "direct") FlightType flightType,
+    @Schema(description = "Fare classes of the flights", example = "[\"Business\"]") Set<FareClass> fareClass,
+    @Schema(description = "Lowest price (inclusive)", example = "10000") @Min(0) Integer minPrice,
+    @Schema(description = "Highest price (inclusive)", example = "50000") @Min(0) Integer maxPrice,
+    @Schema(description = "Departure day (UTC) in ISO 8601 format", example = "2022-01-01") LocalDate departureDay,
+    @Schema(
+        description = "Earliest departure date & time (inclusive) in ISO 8601 format",
+        example = "2022-01-01T06:00:00Z"
+    )
+    Instant departureFrom,
+    @Schema(
+        description = "Latest departure date & time (inclusive) in ISO 8601 format",
+        example = "2022-01-01T18:00:00Z"
+    )
+    Instant departureTo,
+    @Schema(description = "Order of the flights, ties are resolved by departure", example = "price")
+    FlightSortKey sort,
+    @Schema(description = "Maximum number of flights returned", example = "10")
+    @Min(1)
+    @Max(FlightSearchCriteria.MAX_LIMIT)
+    Integer limit,
+    @Schema(description = "Opaque cursor from the `nextCursor` of a previous result") String cursor
+) {}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Ascending order of the search results; ties are resolved by departure time, then by flight id.
+ */
+public enum FlightSortKey {
+    @JsonProperty("departure")
+    @Schema(description = "Earliest departure first", name = "departure")
+    DEPARTURE,
+    @JsonProperty("arrival")
+    @Schema(description = "Earliest arrival first", name = "arrival")
+    ARRIVAL,
+    @JsonProperty("price")
+    @Schema(description = "Lowest price first", name = "price")
+    PRICE,
+    @JsonProperty("duration")
+    @Schema(description = "Shortest duration first", name = "duration")
+    DURATION,
+}
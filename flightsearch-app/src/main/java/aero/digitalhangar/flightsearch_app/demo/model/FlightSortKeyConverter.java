@@ -0,0 +1,24 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.model;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FlightSortKeyConverter implements Converter<String, FlightSortKey> {
+
+    @Override
+    public FlightSortKey convert(String source) {
+        return switch (source.toLowerCase()) {
+            case "departure" -> FlightSortKey.DEPARTURE;
+            case "arrival" -> FlightSortKey.ARRIVAL;
+            case "price" -> FlightSortKey.PRICE;
+            case "duration" -> FlightSortKey.DURATION;
+            default -> throw new IllegalArgumentException("Unknown FlightSortKey: " + source);
+        };
+    }
+}
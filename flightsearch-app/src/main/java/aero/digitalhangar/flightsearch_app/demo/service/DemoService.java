@@ -7,9 +7,19 @@ package aero.digitalhangar.flightsearch_app.demo.service;
 
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceItem;
 import java.util.List;
+import java.util.Optional;
 
 public interface DemoService {
     List<ServiceItem> getServicesFromBooking(final String bookingId);
 
     ServiceItem getServiceFromBooking(final String bookingId, final String serviceId);
+
+    /**
+     * Entity tag of the services of a booking, known without retrieving them.
+     *
+     * @return strong entity tag, quoted; empty if the services are not tagged
+     */
+    default Optional<String> eTag(final String bookingId) {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareCalendarDay;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import java.util.List;
+
+public interface FareCalendarService {
+    /**
+     * Only the route, the departure window and the flight type of the criteria apply. Prices are compared within a
+     * currency only, so a day holds the cheapest flight of each currency it is offered in.
+     *
+     * @return cheapest flight of each departure day (UTC), flight type and currency, in {@link FareCalendarDay#ORDER}
+     * @throws aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException if no flight departs within the
+     *     window
+     */
+    List<FareCalendarDay> getFareCalendar(FlightSearchCriteria criteria);
+}
@@ -6,16 +6,36 @@
 package aero.digitalhangar.flightsearch_app.demo.service;
 
 import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
-import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FlightSearchService {
-    List<FlightItem> getFlightsFromSearch(
-        String origin,
-        String destination,
-        Optional<String> departureDate,
-        Optional<String> returnDate,
-        Optional<FlightType> flightType
-    );
+    /**
+     * Qualifier of the search engine, i.e. the implementation not delegating to another one.
+     */
+    String ENGINE = "flightSearchEngine";
+
+    List<FlightItem> getFlightsFromSearch(FlightSearchCriteria criteria);
+
+    /**
+     * Same flights as {@link #getFlightsFromSearch(FlightSearchCriteria)}, produced while the stream is consumed where
+     * the implementation allows it.
+     *
+     * @throws aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException before returning, if no flight
+     *     matches
+     */
+    default Stream<FlightItem> streamFlightsFromSearch(final FlightSearchCriteria criteria) {
+        return getFlightsFromSearch(criteria).stream();
+    }
+
+    /**
+     * Entity tag the result of {@link #getFlightsFromSearch(FlightSearchCriteria)} carries, known without searching.
+     *
+     * @return strong entity tag, quoted; empty if results are not tagged
+     */
+    default Optional<String> eTag(final FlightSearchCriteria criteria) {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.commons.web.PreSerializedJson;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable search result shared by all callers of a cached query, serialized to JSON at most once.
+ */
+final class CachedFlights extends AbstractList<FlightItem> implements PreSerializedJson, RandomAccess {
+
+    private final List<FlightItem> flights;
+    private final String eTag;
+    private volatile byte[] json;
+
+    CachedFlights(final List<FlightItem> flights, final String eTag) {
+        this.flights = List.copyOf(flights);
+        this.eTag = eTag;
+    }
+
+    @Override
+    public FlightItem get(final int index) {
+        return flights.get(index);
+    }
+
+    @Override
+    public int size() {
+        return flights.size();
+    }
+
+    @Override
+    public byte[] json(final ObjectMapper objectMapper) throws IOException {
+        // racing first writers serialize the same result, either copy may be kept
+        byte[] serialized = json;
+        if (serialized == null) {
+            serialized = objectMapper.writeValueAsBytes(flights);
+            json = serialized;
+        }
+        return serialized;
+    }
+
+    @Override
+    public String eTag() {
+        return eTag;
+    }
+}
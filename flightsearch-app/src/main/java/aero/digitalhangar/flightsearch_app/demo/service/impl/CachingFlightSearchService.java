@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.commons.web.ETags;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.PublishedCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves repeated searches from a {@link SearchResultCache} in front of the configured search engine. Queries are keyed
+ * by their parsed criteria with upper-cased airport codes; results, including "not found", are kept until they expire,
+ * are evicted or a new catalogue version is published. Cached results keep their JSON once serialized, tagged with an
+ * entity tag of the catalogue content and query, so hot responses are not serialized again. The same tag is known
+ * without searching, which lets unchanged results be confirmed to polling clients without a search.
+ * <p>
+ * Concurrent misses of the same query and catalogue version are coalesced by a {@link SingleFlight}, so a cold popular
+ * search, e.g. right after a reload, reaches the engine once.
+ * <p>
+ * Streamed searches are meant for wide result sets and always reach the engine.
+ */
+@Primary
+// results of remote inventory providers do not follow the catalogue version, see FanOutFlightSearchService
+@ConditionalOnExpression(
+    "${flightsearch.search.cache.enabled:true} and !${flightsearch.search.providers.enabled:false}"
+)
+@Service
+public class CachingFlightSearchService implements FlightSearchService {
+
+    private final FlightSearchService delegate;
+    private final FlightCatalogueHolder catalogueHolder;
+    private final SearchResultCache<FlightSearchCriteria, CachedFlights> cache;
+    private final SingleFlight<SearchKey, CachedFlights> singleFlight;
+
+    public CachingFlightSearchService(
+        final @Qualifier(FlightSearchService.ENGINE) FlightSearchService delegate,
+        final FlightCatalogueHolder catalogueHolder,
+        final MeterRegistry meterRegistry,
+        final @Value("${flightsearch.search.cache.maximum-size:10000}") int maximumSize,
+        final @Value("${flightsearch.search.cache.time-to-live:5m}") Duration timeToLive
+    ) {
+        this.delegate = delegate;
+        this.catalogueHolder = catalogueHolder;
+        this.cache = new SearchResultCache<>("flightSearch", maximumSize, timeToLive);
+        this.cache.bindTo(meterRegistry);
+        this.singleFlight = new SingleFlight<>("flightSearch");
+        this.singleFlight.bindTo(meterRegistry);
+        catalogueHolder.onPublish(published -> cache.evictOlderThan(published.version()));
+    }
+
+    @Override
+    public List<FlightItem> getFlightsFromSearch(final FlightSearchCriteria criteria) {
+        FlightSearchCriteria key = criteria.normalized();
+        // read before searching: a result computed on a newer catalogue is tagged as stale, never the other way round
+        PublishedCatalogue published = catalogueHolder.current();
+        long version = published.version();
+
+        CachedFlights flights = cache.get(key, version);
+        if (flights == null) {
+            flights = singleFlight.execute(new SearchKey(key, version), () -> search(key, published));
+        }
+
+        return flights.isEmpty() ? throwError() : flights;
+    }
+
+    @Override
+    public Stream<FlightItem> streamFlightsFromSearch(final FlightSearchCriteria criteria) {
+        return delegate.streamFlightsFromSearch(criteria);
+    }
+
+    @Override
+    public Optional<String> eTag(final FlightSearchCriteria criteria) {
+        return Optional.of(eTag(criteria.normalized(), catalogueHolder.current()));
+    }
+
+    private CachedFlights search(final FlightSearchCriteria key, final PublishedCatalogue published) {
+        List<FlightItem> foundFlights;
+        try {
+            foundFlights = delegate.getFlightsFromSearch(key);
+        } catch (FlightsNotFoundException e) {
+            foundFlights = List.of();
+        }
+        CachedFlights flights = new CachedFlights(foundFlights, eTag(key, published));
+        // cached before the computation is released, so that later callers hit the cache
+        cache.put(key, flights, published.version());
+
+        return flights;
+    }
+
+    /**
+     * Tags by the catalogue content rather than its version, so replicas serving the same flights hand out the same
+     * tags, and by an explicit serialization of the query, independent of the iteration order of its fare classes.
+     */
+    private static String eTag(final FlightSearchCriteria key, final PublishedCatalogue published) {
+        String fareClasses = key.fareClasses() == null
+            ? null
+            : key.fareClasses().stream().map(FareClass::name).sorted().collect(Collectors.joining(","));
+        String query = Stream
+            .of(
+                key.origin(),
+                key.destination(),
+                key.departureFrom(),
+                key.departureTo(),
+                key.arrival(),
+                key.flightType(),
+                fareClasses,
+                key.minPrice(),
+                key.maxPrice(),
+                key.sortBy(),
+                key.limit(),
+                key.after() == null ? null : key.after().encode()
+            )
+            .map(String::valueOf)
+            .collect(Collectors.joining("|"));
+
+        return ETags.strong(Long.toHexString(published.contentHash()) + ":" + query);
+    }
+
+    private static <T> T throwError() {
+        throw new FlightsNotFoundException();
+    }
+
+    private record SearchKey(FlightSearchCriteria criteria, long version) {}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.commons.web.client.RestClientConfig;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ScheduledFlight;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.TopK;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightProvidersUnavailableException;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Searches the search engine and the remote {@link InventoryProviders} concurrently, each call on its own virtual
+ * thread, and merges what they found. A flight listed by several providers is kept once, as found by the engine or
+ * else by the provider first by name; the merged flights are ordered and limited like the results of one provider.
+ * <p>
+ * All calls share one deadline of {@code external.services.common.timeout.read} from the start of the search, so a
+ * search takes as long as its slowest provider within that budget rather than the sum of all calls. Calls still running
+ * at the deadline are interrupted and left out of the result like failed ones, as are providers answering malformed
+ * flights; the search only fails if no provider answered. Exposes {@code flightsearch.providers.calls} by provider and
+ * outcome.
+ * <p>
+ * Results of remote providers do not follow the catalogue version, so searches are not cached while providers are
+ * enabled.
+ */
+@Slf4j
+@Primary
+@ConditionalOnProperty(name = "flightsearch.search.providers.enabled", havingValue = "true")
+@Service
+public class FanOutFlightSearchService implements FlightSearchService {
+
+    private static final String ENGINE_PROVIDER = "engine";
+
+    private final Map<String, FlightSearchService> providers;
+    private final Duration deadline;
+    private final SimpleAsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public FanOutFlightSearchService(
+        final @Qualifier(FlightSearchService.ENGINE) FlightSearchService engine,
+        final InventoryProviders inventoryProviders,
+        final @Qualifier(RestClientConfig.EXTERNAL_REST_CLIENT) RestClient restClient,
+        final TaskDecorator taskDecorator,
+        final MeterRegistry meterRegistry,
+        final @Value("${external.services.common.timeout.read}") long deadlineMillis
+    ) {
+        this(
+            providers(engine, inventoryProviders, restClient),
+            Duration.ofMillis(deadlineMillis),
+            taskDecorator,
+            meterRegistry
+        );
+    }
+
+    /**
+     * @param providers searched providers by name; a flight listed by several of them is kept as found by the first one
+     */
+    public FanOutFlightSearchService(
+        final Map<String, FlightSearchService> providers,
+        final Duration deadline,
+        final TaskDecorator taskDecorator,
+        final MeterRegistry meterRegistry
+    ) {
+        this.providers = new LinkedHashMap<>(providers);
+        this.deadline = deadline;
+        this.executor = new SimpleAsyncTaskExecutor("flight-provider-");
+        this.executor.setVirtualThreads(true);
+        this.executor.setTaskDecorator(taskDecorator);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<FlightItem> getFlightsFromSearch(final FlightSearchCriteria criteria) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        Map<String, Future<List<ScheduledFlight>>> calls = new LinkedHashMap<>();
+        providers.forEach((name, provider) -> calls.put(name, executor.submit(() -> search(provider, criteria))));
+
+        Map<String, ScheduledFlight> flightsById = new LinkedHashMap<>();
+        boolean answered = false;
+        for (Map.Entry<String, Future<List<ScheduledFlight>>> call : calls.entrySet()) {
+            List<ScheduledFlight> foundFlights = await(call.getKey(), call.getValue(), deadlineNanos);
+            if (foundFlights != null) {
+                answered = true;
+                foundFlights.forEach(flight -> flightsById.putIfAbsent(flight.flightItem().id(), flight));
+            }
+        }
+        if (!answered) {
+            throw new FlightProvidersUnavailableException();
+        }
+
+        List<FlightItem> foundFlights = flightsById
+            .values()
+            .stream()
+            .collect(TopK.collector(criteria.limit(), ScheduledFlight.order(criteria.sortBy())))
+            .stream()
+            .map(ScheduledFlight::flightItem)
+            .toList();
+
+        return foundFlights.isEmpty() ? throwError() : foundFlights;
+    }
+
+    /**
+     * Parses the found flights within the call, so a malformed flight only fails the provider listing it.
+     */
+    private static List<ScheduledFlight> search(
+        final FlightSearchService provider,
+        final FlightSearchCriteria criteria
+    ) {
+        return provider.getFlightsFromSearch(criteria).stream().map(ScheduledFlight::of).toList();
+    }
+
+    /**
+     * @return flights found by the provider, empty if it found none; {@code null} if it failed or missed the deadline
+     */
+    private List<ScheduledFlight> await(
+        final String provider,
+        final Future<List<ScheduledFlight>> call,
+        final long deadlineNanos
+    ) {
+        try {
+            List<ScheduledFlight> foundFlights = call.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            count(provider, "found");
+            return foundFlights;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FlightsNotFoundException) {
+                count(provider, "not_found");
+                return List.of();
+            }
+            count(provider, "failed");
+            log.warn("Flight provider {} failed: {}", provider, e.getCause().getLocalizedMessage());
+            return null;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            count(provider, "timed_out");
+            log.warn("Flight provider {} did not answer within {}", provider, deadline);
+            return null;
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void count(final String provider, final String outcome) {
+        Counter
+            .builder("flightsearch.providers.calls")
+            .tag("provider", provider)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private static Map<String, FlightSearchService> providers(
+        final FlightSearchService engine,
+        final InventoryProviders inventoryProviders,
+        final RestClient restClient
+    ) {
+        Map<String, FlightSearchService> providers = new LinkedHashMap<>();
+        providers.put(ENGINE_PROVIDER, engine);
+        inventoryProviders
+            .remote()
+            .forEach((name, baseUrl) -> {
+                if (providers.putIfAbsent(name, new RemoteFlightSearchService(restClient, baseUrl)) != null) {
+                    throw new IllegalArgumentException("provider name " + name + " is reserved for the search engine");
+                }
+            });
+
+        return providers;
+    }
+
+    private static <T> T throwError() {
+        throw new FlightsNotFoundException();
+    }
+}
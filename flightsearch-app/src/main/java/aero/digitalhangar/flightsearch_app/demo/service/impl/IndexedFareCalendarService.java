@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.RouteBucket;
+import aero.digitalhangar.flightsearch_app.demo.model.FareCalendarDay;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FareCalendarService;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Builds the fare calendar in a single pass over the departure window of the route's {@link RouteBucket}, instead of a
+ * search per day. Only stored flights are considered; connections composed at search time are not priced.
+ * <p>
+ * Origin and destination may be {@link AirportGroups airport group} codes: the calendars of all routes between their
+ * airports are merged, keeping the cheapest flight of each day, flight type and currency.
+ */
+@RequiredArgsConstructor
+@Service
+public class IndexedFareCalendarService implements FareCalendarService {
+
+    private final FlightCatalogueHolder catalogueHolder;
+    private final AirportGroups airportGroups;
+
+    @Override
+    public List<FareCalendarDay> getFareCalendar(final FlightSearchCriteria criteria) {
+        FlightCatalogue catalogue = catalogueHolder.current().catalogue();
+
+        List<FareCalendarDay> calendar = airportGroups
+            .routes(criteria.origin(), criteria.destination())
+            .stream()
+            .flatMap(route ->
+                catalogue
+                    .route(route.origin(), route.destination())
+                    .fareCalendar(criteria.departureFrom(), criteria.departureTo(), criteria.flightType())
+                    .stream()
+            )
+            .collect(
+                Collectors.toMap(
+                    Fare::of,
+                    Function.identity(),
+                    BinaryOperator.minBy(Comparator.comparingInt(FareCalendarDay::price))
+                )
+            )
+            .values()
+            .stream()
+            .sorted(FareCalendarDay.ORDER)
+            .toList();
+
+        return calendar.isEmpty() ? throwError() : calendar;
+    }
+
+    private static <T> T throwError() {
+        throw new FlightsNotFoundException();
+    }
+
+    private record Fare(LocalDate day, FlightType flightType, String currency) {
+        static Fare of(final FareCalendarDay day) {
+            return new Fare(day.day(), day.flightType(), day.currency());
+        }
+    }
+}
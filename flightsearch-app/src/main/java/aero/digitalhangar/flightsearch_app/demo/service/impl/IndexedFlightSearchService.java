@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ConnectionBuilder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.KWayMerge;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.RouteBucket;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.RouteKey;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ScheduledFlight;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.TopK;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Searches a route-keyed {@link FlightCatalogue}: a single bucket lookup followed by a range scan over flights
+ * already sorted by departure, so the cost grows with the result size rather than with the catalogue size.
+ * The departure window is resolved with a binary search over epoch seconds of the route, filters read the route
+ * columns and only matching flights are materialized. Each search runs on the catalogue published when it started.
+ * <p>
+ * With {@code flightsearch.search.connections.enabled} the stored flights are complemented by segmented itineraries
+ * composed from direct legs by the {@link ConnectionBuilder}.
+ * <p>
+ * Origin and destination may be {@link AirportGroups airport group} codes: every route between their airports is
+ * searched on its own and the ranked routes are merged lazily, so only the returned flights are materialized.
+ */
+@ConditionalOnProperty(name = "flightsearch.search.engine", havingValue = "indexed", matchIfMissing = true)
+@Qualifier(FlightSearchService.ENGINE)
+@Service
+public class IndexedFlightSearchService implements FlightSearchService {
+
+    private final FlightCatalogueHolder catalogueHolder;
+    private final AirportGroups airportGroups;
+    private final ConnectionBuilder connectionBuilder;
+    private final boolean connectionsEnabled;
+
+    public IndexedFlightSearchService(
+        final FlightCatalogueHolder catalogueHolder,
+        final AirportGroups airportGroups,
+        final ConnectionBuilder connectionBuilder,
+        final @Value("${flightsearch.search.connections.enabled:false}") boolean connectionsEnabled
+    ) {
+        this.catalogueHolder = catalogueHolder;
+        this.airportGroups = airportGroups;
+        this.connectionBuilder = connectionBuilder;
+        this.connectionsEnabled = connectionsEnabled;
+    }
+
+    @Override
+    public List<FlightItem> getFlightsFromSearch(final FlightSearchCriteria criteria) {
+        List<FlightItem> foundFlights = search(criteria).toList();
+
+        return foundFlights.isEmpty() ? throwError() : foundFlights;
+    }
+
+    /**
+     * Departure sorted flights are read from the route while the stream is consumed; other orders and composed
+     * connections are selected first and materialized while consumed.
+     */
+    @Override
+    public Stream<FlightItem> streamFlightsFromSearch(final FlightSearchCriteria criteria) {
+        Iterator<FlightItem> foundFlights = search(criteria).iterator();
+
+        return foundFlights.hasNext()
+            ? StreamSupport.stream(Spliterators.spliteratorUnknownSize(foundFlights, Spliterator.ORDERED), false)
+            : throwError();
+    }
+
+    private Stream<FlightItem> search(final FlightSearchCriteria criteria) {
+        FlightCatalogue catalogue = catalogueHolder.current().catalogue();
+        List<RouteKey> routes = airportGroups.routes(criteria.origin(), criteria.destination());
+        Comparator<ScheduledFlight> order = ScheduledFlight.order(criteria.sortBy());
+
+        // each route is ranked in the search order, the merge pulls only the flights it returns
+        Stream<ScheduledFlight> foundFlights = KWayMerge
+            .merge(
+                routes
+                    .stream()
+                    .map(route -> routeFlights(catalogue.route(route.origin(), route.destination()), criteria))
+                    .toList(),
+                order
+            )
+            .limit(criteria.limit());
+
+        if (connectionsEnabled && criteria.flightType() != FlightType.DIRECT) {
+            Stream<ScheduledFlight> connections = routes
+                .stream()
+                .map(route -> criteria.toBuilder().origin(route.origin()).destination(route.destination()).build())
+                .flatMap(routeCriteria -> connectionBuilder.connections(catalogue, routeCriteria).stream());
+            foundFlights = Stream
+                .concat(foundFlights, connections)
+                .collect(TopK.collector(criteria.limit(), order))
+                .stream();
+        }
+
+        return foundFlights.map(ScheduledFlight::flightItem);
+    }
+
+    /**
+     * Flights are kept in departure order, so a departure sorted search stops after the limit and a following page
+     * resumes at the binary searched position of its cursor; other orders select the top rows of the whole departure
+     * window following the cursor and materialize only them.
+     * <p>
+     * Fare class filters skip rows with the fare class bitsets. When the price range holds fewer flights than the
+     * departure window, the rows are read in price order instead; a price sorted search then stops after the limit.
+     */
+    private static Stream<ScheduledFlight> routeFlights(final RouteBucket route, final FlightSearchCriteria criteria) {
+        int from = route.lowerBound(criteria.departureFrom());
+        int to = route.upperBound(criteria.departureTo());
+        FlightSortKey sortKey = criteria.sortBy();
+        FlightCursor after = criteria.after();
+
+        if (sortKey == FlightSortKey.DEPARTURE) {
+            int first = after == null ? from : Math.max(from, route.upperBound(after.departure(), after.id()));
+
+            return route
+                .rows(first, to, criteria.fareClasses())
+                .filter(index -> matches(route, index, criteria))
+                .limit(criteria.limit())
+                .mapToObj(index -> scheduledFlight(route, index));
+        }
+
+        boolean priced = sortKey == FlightSortKey.PRICE || criteria.minPrice() != null || criteria.maxPrice() != null;
+        if (priced) {
+            int cheapest = route.priceLowerBound(criteria.minPrice());
+            int dearest = route.priceUpperBound(criteria.maxPrice());
+            if (dearest - cheapest <= to - from) {
+                if (sortKey == FlightSortKey.PRICE && after != null) {
+                    cheapest = Math.max(cheapest, route.priceLowerBound(after.value()));
+                }
+                IntStream pricedRows = route
+                    .priceOrder(cheapest, dearest)
+                    .filter(index -> index >= from && index < to)
+                    .filter(index -> matches(route, index, criteria) && (after == null || route.isAfter(index, after)));
+
+                return sortKey == FlightSortKey.PRICE
+                    ? pricedRows.limit(criteria.limit()).mapToObj(index -> scheduledFlight(route, index))
+                    : topRows(route, pricedRows, criteria);
+            }
+        }
+
+        return topRows(
+            route,
+            route
+                .rows(from, to, criteria.fareClasses())
+                .filter(index -> matches(route, index, criteria) && (after == null || route.isAfter(index, after))),
+            criteria
+        );
+    }
+
+    private static Stream<ScheduledFlight> topRows(
+        final RouteBucket route,
+        final IntStream rows,
+        final FlightSearchCriteria criteria
+    ) {
+        FlightSortKey sortKey = criteria.sortBy();
+
+        // rows are in (departure, id) order, so the row index breaks ties of the sort key
+        TopK<Integer> topRows = new TopK<>(
+            criteria.limit(),
+            Comparator.<Integer>comparingLong(index -> route.sortValue(sortKey, index)).thenComparingInt(index -> index)
+        );
+        rows.forEach(topRows::offer);
+
+        return topRows.toSortedList().stream().map(index -> scheduledFlight(route, index));
+    }
+
+    private static boolean matches(final RouteBucket route, final int index, final FlightSearchCriteria criteria) {
+        Instant arrival = criteria.arrival();
+
+        return (
+            (arrival == null || (arrival.getNano() == 0 && arrival.getEpochSecond() == route.arrival(index))) &&
+            (criteria.flightType() == null || criteria.flightType() == route.flightType(index)) &&
+            criteria.matchesFare(route.fareClass(index), route.price(index))
+        );
+    }
+
+    private static ScheduledFlight scheduledFlight(final RouteBucket route, final int index) {
+        return new ScheduledFlight(route.get(index), route.departure(index), route.arrival(index));
+    }
+
+    private static <T> T throwError() {
+        throw new FlightsNotFoundException();
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Inventory sources searched together with the search engine, e.g. airline partners or GDS stand-ins serving the
+ * flight search API of this service.
+ *
+ * @param enabled whether searches fan out to the engine and the remote providers
+ * @param remote  base URLs of the remote providers by provider name, e.g. {@code http://partner:5100/api}; iterated in
+ *                the order of the names
+ */
+@ConfigurationProperties("flightsearch.search.providers")
+public record InventoryProviders(boolean enabled, Map<String, URI> remote) {
+    public static final InventoryProviders NONE = new InventoryProviders(false, Map.of());
+
+    public InventoryProviders {
+        remote = Collections.unmodifiableMap(remote == null ? new TreeMap<>() : new TreeMap<>(remote));
+    }
+}
@@ -5,12 +5,14 @@
  */
 package aero.digitalhangar.flightsearch_app.demo.service.impl;
 
+import aero.digitalhangar.flightsearch_app.commons.web.ETags;
 import aero.digitalhangar.flightsearch_app.demo.model.BookingNotFoundException;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceItem;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceNotFoundException;
 import aero.digitalhangar.flightsearch_app.demo.service.DemoService;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -32,6 +34,9 @@ public class MockDemoService implements DemoService {
         )
         .collect(Collectors.toMap(ServiceItem::id, Function.identity()));
 
+    // the mock data does not change at runtime, its hash stands in for a data version
+    private static final int MOCK_DATA_VERSION = MOCK_DATA.hashCode();
+
     @Override
     public List<ServiceItem> getServicesFromBooking(final String bookingId) {
         return DUMMY_BOOKING_ID.equalsIgnoreCase(bookingId)
@@ -48,6 +53,13 @@ public class MockDemoService implements DemoService {
             : throwError(bookingId);
     }
 
+    @Override
+    public Optional<String> eTag(final String bookingId) {
+        return DUMMY_BOOKING_ID.equalsIgnoreCase(bookingId)
+            ? Optional.of(ETags.strong(MOCK_DATA_VERSION + ":" + bookingId.toUpperCase(Locale.ROOT)))
+            : Optional.empty();
+    }
+
     private static <T> T throwError(final String orderId) {
         throw new BookingNotFoundException(orderId);
     }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Inventory provider serving the {@code /flights} API of this service, e.g. a partner or GDS stand-in, called with the
+ * external services client. The criteria are sent as the request parameters they were parsed from, so the provider
+ * applies filters, order and cursor itself. The provider answers at most {@link FlightSearchCriteria#MAX_LIMIT}
+ * flights per call, so larger limits, e.g. of streamed searches, are fetched page by page from the cursor after the
+ * last flight of the previous page.
+ */
+final class RemoteFlightSearchService implements FlightSearchService {
+
+    private final RestClient restClient;
+    private final URI baseUrl;
+
+    RemoteFlightSearchService(final RestClient restClient, final URI baseUrl) {
+        this.restClient = restClient;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public List<FlightItem> getFlightsFromSearch(final FlightSearchCriteria criteria) {
+        List<FlightItem> foundFlights = new ArrayList<>();
+        FlightCursor after = criteria.after();
+        while (foundFlights.size() < criteria.limit()) {
+            int pageLimit = Math.min(criteria.limit() - foundFlights.size(), FlightSearchCriteria.MAX_LIMIT);
+            List<FlightItem> page = page(criteria.toBuilder().limit(pageLimit).after(after).build());
+            foundFlights.addAll(page);
+            if (page.size() < pageLimit) {
+                break;
+            }
+            after = FlightCursor.after(criteria.sortBy(), page.get(page.size() - 1));
+        }
+
+        return foundFlights.isEmpty() ? throwError() : foundFlights;
+    }
+
+    /**
+     * @return flights of one page of at most {@link FlightSearchCriteria#MAX_LIMIT} flights, empty if there are none
+     */
+    private List<FlightItem> page(final FlightSearchCriteria criteria) {
+        try {
+            FlightItem[] foundFlights = restClient
+                .get()
+                .uri(uri(criteria))
+                .retrieve()
+                .onStatus(
+                    status -> status.isSameCodeAs(HttpStatus.NOT_FOUND),
+                    (request, response) -> {
+                        throw new FlightsNotFoundException();
+                    }
+                )
+                .body(FlightItem[].class);
+
+            return foundFlights == null ? List.of() : List.of(foundFlights);
+        } catch (FlightsNotFoundException e) {
+            return List.of();
+        }
+    }
+
+    private URI uri(final FlightSearchCriteria criteria) {
+        UriComponentsBuilder uri = UriComponentsBuilder
+            .fromUri(baseUrl)
+            .path("/flights")
+            .queryParam("origin", criteria.origin())
+            .queryParam("destination", criteria.destination())
+            .queryParamIfPresent("departureFrom", Optional.ofNullable(criteria.departureFrom()))
+            // the parameter is inclusive, the criteria bound is not
+            .queryParamIfPresent("departureTo", Optional.ofNullable(criteria.departureTo()).map(to -> to.minusNanos(1)))
+            .queryParamIfPresent("returnDate", Optional.ofNullable(criteria.arrival()))
+            .queryParamIfPresent("flightType", Optional.ofNullable(criteria.flightType()).map(Enum::name))
+            .queryParamIfPresent("minPrice", Optional.ofNullable(criteria.minPrice()))
+            .queryParamIfPresent("maxPrice", Optional.ofNullable(criteria.maxPrice()))
+            .queryParam("sort", criteria.sortBy().name().toLowerCase(Locale.ROOT))
+            .queryParam("limit", criteria.limit())
+            .queryParamIfPresent("cursor", Optional.ofNullable(criteria.after()).map(FlightCursor::encode));
+        if (criteria.fareClasses() != null) {
+            criteria
+                .fareClasses()
+                .stream()
+                .map(FareClass::name)
+                .sorted()
+                .forEach(fareClass -> uri.queryParam("fareClass", fareClass));
+        }
+
+        return uri.encode().build().toUri();
+    }
+
+    private static <T> T throwError() {
+        throw new FlightsNotFoundException();
+    }
+}
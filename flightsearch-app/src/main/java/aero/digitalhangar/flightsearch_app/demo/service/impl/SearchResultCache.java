@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Size bounded cache with a time to live, split into independently locked segments which evict their least recently
+ * used entry. Entries are tagged with the catalogue version they were computed on and only served for that version.
+ * {@link #evictOlderThan(long)} drops the entries of previous versions as soon as a new one is published; results
+ * computed on a previous version and put afterwards are not cached.
+ * <p>
+ * Exposes the Micrometer cache meters ({@code cache.gets}, {@code cache.puts}, {@code cache.evictions},
+ * {@code cache.size}) under the given cache name.
+ */
+final class SearchResultCache<K, V> implements MeterBinder {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final String name;
+    private final long timeToLiveNanos;
+    private final List<Segment> segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    SearchResultCache(final String name, final int maximumSize, final Duration timeToLive) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        this.name = name;
+        this.timeToLiveNanos = timeToLive.toNanos();
+
+        // a power of two, so that a segment is selected by masking the spread hash code
+        int segmentCount = Integer.highestOneBit(Math.min(MAX_SEGMENTS, maximumSize));
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = IntStream.range(0, segmentCount).mapToObj(i -> new Segment(segmentSize)).toList();
+    }
+
+    /**
+     * @return value cached for the catalogue version, {@code null} if absent, expired or computed on another version
+     */
+    V get(final K key, final long version) {
+        Segment segment = segment(key);
+        long now = System.nanoTime();
+
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry != null && (entry.version < version || now - entry.expiresAt >= 0)) {
+                segment.entries.remove(key);
+                evictions.increment();
+                entry = null;
+            } else if (entry != null && entry.version > version) {
+                entry = null; // computed on a newer version than the one of the reader, still fresh for later readers
+            }
+
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    void put(final K key, final V value, final long version) {
+        Segment segment = segment(key);
+        Entry<V> entry = new Entry<>(value, version, System.nanoTime() + timeToLiveNanos);
+
+        segment.lock.lock();
+        try {
+            if (version < segment.version) {
+                return;
+            }
+            segment.evictOlderThan(version);
+            segment.entries.put(key, entry);
+            puts.increment();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops all entries computed on catalogue versions older than the given one.
+     */
+    void evictOlderThan(final long version) {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.evictOlderThan(version);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("cache.size", this, SearchResultCache::size).tag("cache", name).register(registry);
+        FunctionCounter
+            .builder("cache.gets", hits, LongAdder::sum)
+            .tag("cache", name)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.gets", misses, LongAdder::sum)
+            .tag("cache", name)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum).tag("cache", name).register(registry);
+    }
+
+    private Segment segment(final K key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & (segments.size() - 1));
+    }
+
+    private record Entry<V>(V value, long version, long expiresAt) {}
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Entry<V>> entries;
+        private long version = Long.MIN_VALUE; // newest catalogue version of the cached entries
+
+        private Segment(final int maximumSize) {
+            // access ordered, so the eldest entry is the least recently used one
+            this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) {
+                        if (size() <= maximumSize) {
+                            return false;
+                        }
+                        evictions.increment();
+                        return true;
+                    }
+                };
+        }
+
+        private void evictOlderThan(final long newVersion) {
+            if (newVersion <= version) {
+                return;
+            }
+            version = newVersion;
+            evictions.add(entries.size());
+            entries.clear();
+        }
+    }
+}
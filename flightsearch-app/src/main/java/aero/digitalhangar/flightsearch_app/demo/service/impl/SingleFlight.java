@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service.impl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers of the same key share one computation: the first caller computes, the others wait for its
+ * result, or its exception, instead of computing it again. Nothing is kept once the computation finished.
+ * <p>
+ * Exposes {@code singleflight.coalesced} (callers served by another caller's computation) and
+ * {@code singleflight.in.flight} (running computations) under the given name.
+ */
+final class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    SingleFlight(final String name) {
+        this.name = name;
+    }
+
+    V execute(final K key, final Supplier<V> computation) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            V value = computation.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter
+            .builder("singleflight.coalesced", coalesced, LongAdder::sum)
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("singleflight.in.flight", inFlight, ConcurrentMap::size).tag("name", name).register(registry);
+    }
+
+    private static <V> V await(final CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ETagsTest {
+
+    private static final String TAG = "\"0123456789abcdef0123456789abcdef\"";
+
+    @Test
+    void should_derive_strong_tag_from_identity() {
+        assertThat(ETags.strong("1:FRA-MSP")).matches("\"[0-9a-f]{32}\"").isEqualTo(ETags.strong("1:FRA-MSP"));
+        assertThat(ETags.strong("2:FRA-MSP")).isNotEqualTo(ETags.strong("1:FRA-MSP"));
+    }
+
+    @ParameterizedTest(name = "Scenario for If-None-Match: {0}")
+    @CsvSource(
+        delimiter = '|',
+        value = {
+            "'\"0123456789abcdef0123456789abcdef\"'|true",
+            "'W/\"0123456789abcdef0123456789abcdef\"'|true",
+            "'\"other\", \"0123456789abcdef0123456789abcdef\"'|true",
+            "*|true",
+            "'\"other\"'|false",
+            "'\"0123456789ABCDEF0123456789ABCDEF\"'|false",
+            "''|false",
+        }
+    )
+    void should_compare_if_none_match_weakly(final String ifNoneMatch, final boolean expectNotModified) {
+        assertThat(ETags.isNotModified(ifNoneMatch, TAG)).isEqualTo(expectNotModified);
+    }
+
+    @Test
+    void should_consider_missing_if_none_match_as_modified() {
+        assertThat(ETags.isNotModified(null, TAG)).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.commons.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.servlet.LogbookFilter;
+
+class StreamedBodyLogbookStrategyTest {
+
+    private static final String FLIGHTS = "{\"id\":\"LH1\"}\n{\"id\":\"LH2\"}\n";
+
+    private final List<String> loggedResponseBodies = new CopyOnWriteArrayList<>();
+
+    private final MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new FlightsController())
+        .addFilters(
+            new LogbookFilter(
+                Logbook.builder().strategy(new StreamedBodyLogbookStrategy()).sink(new CapturingSink()).build()
+            )
+        )
+        .build();
+
+    @Test
+    void should_not_buffer_body_of_streamed_response() throws Exception {
+        this.mockMvc.perform(get("/flights").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().string(FLIGHTS));
+
+        assertThat(loggedResponseBodies).containsExactly("");
+    }
+
+    @Test
+    void should_log_body_of_json_response() throws Exception {
+        this.mockMvc.perform(get("/flights").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().string(FLIGHTS));
+
+        assertThat(loggedResponseBodies).containsExactly(FLIGHTS);
+    }
+
+    @RestController
+    static class FlightsController {
+
+        @GetMapping(
+            value = "/flights",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE }
+        )
+        public String flights() {
+            return FLIGHTS;
+        }
+    }
+
+    private final class CapturingSink implements Sink {
+
+        @Override
+        public void write(final Precorrelation precorrelation, final HttpRequest request) {}
+
+        @Override
+        public void write(
+            final Correlation correlation,
+            final HttpRequest request,
+            final HttpResponse response
+        ) throws IOException {
+            loggedResponseBodies.add(response.getBodyAsString());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AirportGroupsTest {
+
+    private static final AirportGroups AIRPORT_GROUPS = new AirportGroups(
+        Map.of("lon", List.of("LHR", "lgw", "LHR"), "NYC", List.of("JFK", "EWR"))
+    );
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}")
+    @CsvSource(
+        {
+            "FRA,MSP,FRA-MSP",
+            "lon,nyc,'LHR-JFK,LHR-EWR,LGW-JFK,LGW-EWR'",
+            "FRA,LON,'FRA-LHR,FRA-LGW'",
+            "LON,LHR,LGW-LHR",
+            "LHR,LHR,''",
+            ",MSP,''",
+        }
+    )
+    void should_expand_groups_to_routes_between_their_airports(
+        final String origin,
+        final String destination,
+        final String expectedRoutes
+    ) {
+        assertThat(AIRPORT_GROUPS.routes(origin, destination))
+            .map(route -> route.origin() + "-" + route.destination())
+            .containsExactly(expectedRoutes.isEmpty() ? new String[] {} : expectedRoutes.split(","));
+    }
+}
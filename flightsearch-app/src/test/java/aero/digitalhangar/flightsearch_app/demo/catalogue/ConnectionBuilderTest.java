@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ConnectionBuilderTest {
+
+    private static final FlightCatalogue CATALOGUE = FlightCatalogue.of(
+        List.of(
+            flight("FL1", "FRA", "LHR", "08:00", "10:00", 100, "USD", FareClass.B),
+            flight("FL2", "LHR", "MSP", "10:30", "18:00", 200, "USD", FareClass.B),
+            flight("FL3", "LHR", "MSP", "11:00", "19:00", 300, "USD", FareClass.B),
+            flight("FL4", "LHR", "MSP", "12:00", "19:00", 250, "USD", FareClass.P),
+            flight("FL5", "FRA", "CDG", "07:00", "08:00", 100, "USD", FareClass.E),
+            flight("FL6", "CDG", "MSP", "09:00", "12:00", 100, "EUR", FareClass.E),
+            flight("FL7", "CDG", "JFK", "09:00", "17:00", 400, "USD", FareClass.B),
+            flight("FL8", "JFK", "MSP", "18:00", "21:00", 150, "USD", FareClass.B),
+            flight("FL9", "FRA", "MSP", "09:00", "18:00", 900, "USD", FareClass.B)
+        )
+    );
+
+    /**
+     * Several itineraries per first leg: FL1+FL2 (500), FL1+FL3 (250), FL1+FL4+FL5 (300) and FL6+FL7 (600).
+     */
+    private static final FlightCatalogue ALTERNATIVES = FlightCatalogue.of(
+        List.of(
+            flight("FL1", "FRA", "LHR", "08:00", "10:00", 100, "USD", FareClass.E),
+            flight("FL2", "LHR", "MSP", "11:00", "18:00", 400, "USD", FareClass.E),
+            flight("FL3", "LHR", "MSP", "13:00", "21:00", 150, "USD", FareClass.E),
+            flight("FL4", "LHR", "JFK", "11:00", "15:00", 100, "USD", FareClass.E),
+            flight("FL5", "JFK", "MSP", "16:00", "20:00", 100, "USD", FareClass.E),
+            flight("FL6", "FRA", "CDG", "07:00", "08:00", 300, "USD", FareClass.E),
+            flight("FL7", "CDG", "MSP", "09:00", "17:30", 300, "USD", FareClass.E)
+        )
+    );
+
+    private final ConnectionBuilder systemUnderTest = new ConnectionBuilder(
+        Duration.ofMinutes(45),
+        Duration.ofHours(12)
+    );
+
+    private static FlightItem flight(
+        final String id,
+        final String origin,
+        final String destination,
+        final String departure,
+        final String arrival,
+        final int price,
+        final String currency,
+        final FareClass fareClass
+    ) {
+        return new FlightItem(
+            id,
+            "2025-01-01T" + departure + ":00Z",
+            "2025-01-01T" + arrival + ":00Z",
+            origin,
+            destination,
+            "LH",
+            price,
+            currency,
+            fareClass,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    private static FlightSearchCriteria criteria(final String departureFrom, final String arrival) {
+        return criteria(departureFrom, arrival, FlightSortKey.DEPARTURE, 10);
+    }
+
+    private static FlightSearchCriteria criteria(
+        final String departureFrom,
+        final String arrival,
+        final FlightSortKey sortBy,
+        final int limit
+    ) {
+        return FlightSearchCriteria
+            .builder()
+            .origin("FRA")
+            .destination("MSP")
+            .departingWithin(departureFrom == null ? null : Instant.parse(departureFrom), null)
+            .arrival(arrival == null ? null : Instant.parse(arrival))
+            .sortBy(sortBy)
+            .limit(limit)
+            .build();
+    }
+
+    @Test
+    void should_compose_earliest_arriving_itinerary_per_first_leg_in_departure_order() {
+        List<ScheduledFlight> connections = systemUnderTest.connections(CATALOGUE, criteria(null, null));
+
+        assertThat(connections)
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL5+FL7+FL8", "FL1+FL4");
+        assertThat(connections.get(1).flightItem())
+            .usingRecursiveComparison()
+            .isEqualTo(
+                new FlightItem(
+                    "FL1+FL4",
+                    "2025-01-01T08:00:00Z",
+                    "2025-01-01T19:00:00Z",
+                    "FRA",
+                    "MSP",
+                    "LH",
+                    350,
+                    "USD",
+                    FareClass.P,
+                    FlightType.SEGMENTED,
+                    new FlightItem[] {
+                        CATALOGUE.route("FRA", "LHR").get(0),
+                        CATALOGUE.route("LHR", "MSP").get(2),
+                    }
+                )
+            );
+        assertThat(connections.get(0).departure()).isEqualTo(Instant.parse("2025-01-01T07:00:00Z").getEpochSecond());
+        assertThat(connections.get(0).arrival()).isEqualTo(Instant.parse("2025-01-01T21:00:00Z").getEpochSecond());
+    }
+
+    @ParameterizedTest(name = "Scenario departing from {0} arriving at {1}")
+    @CsvSource(
+        {
+            "2025-01-01T07:30:00Z,,FL1+FL4",
+            ",2025-01-01T21:00:00Z,FL5+FL7+FL8",
+            ",2025-01-01T19:00:00Z,FL1+FL4",
+            "2025-01-01T08:30:00Z,,",
+            ",2025-01-01T19:00:00.5Z,",
+        }
+    )
+    void should_restrict_itineraries_by_departure_and_arrival(
+        final String departureFrom,
+        final String arrival,
+        final String expectedId
+    ) {
+        assertThat(systemUnderTest.connections(CATALOGUE, criteria(departureFrom, arrival)))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactlyElementsOf(expectedId == null ? List.of() : List.of(expectedId));
+    }
+
+    @ParameterizedTest(name = "Scenario sorted by {0} limited to {1}")
+    @CsvSource(
+        {
+            "PRICE,2,FL1+FL3;FL6+FL7",
+            "PRICE,1,FL1+FL3",
+            "DEPARTURE,2,FL6+FL7;FL1+FL2",
+            "ARRIVAL,2,FL6+FL7;FL1+FL2",
+            "DURATION,2,FL1+FL2;FL6+FL7",
+        }
+    )
+    void should_keep_best_itinerary_per_first_leg_in_the_searched_order(
+        final FlightSortKey sortBy,
+        final int limit,
+        final String expectedIds
+    ) {
+        assertThat(systemUnderTest.connections(ALTERNATIVES, criteria(null, null, sortBy, limit)))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly(expectedIds.split(";"));
+    }
+
+    @Test
+    void should_respect_connection_times_and_limit() {
+        ConnectionBuilder strict = new ConnectionBuilder(Duration.ofHours(3), Duration.ofHours(12));
+        ConnectionBuilder tight = new ConnectionBuilder(Duration.ofMinutes(30), Duration.ofMinutes(45));
+
+        assertThat(strict.connections(CATALOGUE, criteria(null, null))).isEmpty();
+        assertThat(tight.connections(CATALOGUE, criteria(null, null)))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL1+FL2");
+        assertThat(systemUnderTest.connections(CATALOGUE, criteria(null, null, FlightSortKey.DEPARTURE, 1)))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL5+FL7+FL8");
+        assertThat(systemUnderTest.connections(CATALOGUE, criteria(null, null, FlightSortKey.PRICE, 1)))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL1+FL4");
+    }
+
+    @ParameterizedTest(name = "Scenario with maximum price {0}")
+    @CsvSource({ "250,FL1+FL3", "300,FL1+FL4+FL5", "200," })
+    void should_keep_best_itinerary_of_first_leg_within_the_price_range(
+        final int maxPrice,
+        final String expectedId
+    ) {
+        FlightSearchCriteria criteria = criteria(null, null).toBuilder().maxPrice(maxPrice).build();
+
+        assertThat(systemUnderTest.connections(ALTERNATIVES, criteria))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactlyElementsOf(expectedId == null ? List.of() : List.of(expectedId));
+    }
+
+    @Test
+    void should_keep_best_itinerary_of_first_leg_in_the_searched_fare_classes() {
+        FlightSearchCriteria criteria = criteria(null, null).toBuilder().fareClasses(Set.of(FareClass.B)).build();
+
+        assertThat(systemUnderTest.connections(CATALOGUE, criteria))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL1+FL3");
+    }
+
+    @Test
+    void should_keep_best_itinerary_of_first_leg_following_the_cursor() {
+        FlightSearchCriteria firstPage = criteria(null, null, FlightSortKey.PRICE, 1);
+        FlightItem last = systemUnderTest.connections(ALTERNATIVES, firstPage).get(0).flightItem();
+        FlightSearchCriteria secondPage = criteria(null, null, FlightSortKey.PRICE, 2)
+            .toBuilder()
+            .after(FlightCursor.after(FlightSortKey.PRICE, last))
+            .build();
+
+        assertThat(last.id()).isEqualTo("FL1+FL3");
+        assertThat(systemUnderTest.connections(ALTERNATIVES, secondPage))
+            .extracting(connection -> connection.flightItem().id())
+            .containsExactly("FL1+FL4+FL5", "FL6+FL7");
+    }
+
+    @Test
+    void should_page_through_all_itineraries_in_price_order() {
+        List<String> pagedIds = new ArrayList<>();
+        FlightCursor after = null;
+        List<ScheduledFlight> page;
+        do {
+            page = systemUnderTest.connections(
+                ALTERNATIVES,
+                criteria(null, null, FlightSortKey.PRICE, 1).toBuilder().after(after).build()
+            );
+            for (ScheduledFlight connection : page) {
+                pagedIds.add(connection.flightItem().id());
+                after = FlightCursor.after(FlightSortKey.PRICE, connection.flightItem());
+            }
+        } while (!page.isEmpty());
+
+        assertThat(pagedIds).containsExactly("FL1+FL3", "FL1+FL4+FL5", "FL1+FL2", "FL6+FL7");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightCatalogueHolderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void should_publish_new_catalogue_version_and_keep_previous_snapshot_usable() {
+        FlightCatalogueHolder systemUnderTest = new FlightCatalogueHolder(
+            new FlightCatalogueLoader("", SyntheticFlights.NONE)
+        );
+        PublishedCatalogue previous = systemUnderTest.current();
+
+        PublishedCatalogue reloaded = systemUnderTest.reload();
+
+        assertThat(systemUnderTest.current()).isSameAs(reloaded);
+        assertThat(reloaded.version()).isGreaterThan(previous.version());
+        assertThat(reloaded.catalogue().knownContentHash()).isEmpty();
+        assertThat(reloaded.contentHash()).isEqualTo(previous.contentHash());
+        assertThat(reloaded.catalogue()).isNotSameAs(previous.catalogue());
+        assertThat(reloaded.loadedAt()).isAfterOrEqualTo(previous.loadedAt());
+        assertThat(previous.catalogue().route("FRA", "MSP").get(0).id()).isEqualTo("LH9742");
+    }
+
+    @Test
+    void should_publish_catalogue_with_applied_delta() {
+        FlightCatalogueHolder systemUnderTest = new FlightCatalogueHolder(
+            new FlightCatalogueLoader("", SyntheticFlights.NONE)
+        );
+        PublishedCatalogue previous = systemUnderTest.current();
+
+        PublishedCatalogue updated = systemUnderTest.apply(CatalogueDelta.delete("LH9742"));
+
+        assertThat(systemUnderTest.current()).isSameAs(updated);
+        assertThat(updated.version()).isGreaterThan(previous.version());
+        assertThat(updated.contentHash()).isNotEqualTo(previous.contentHash());
+        assertThat(updated.catalogue().size()).isEqualTo(previous.catalogue().size() - 1);
+        assertThat(updated.catalogue().route("FRA", "MSP").id(0)).isNotEqualTo("LH9742");
+        assertThat(previous.catalogue().route("FRA", "MSP").id(0)).isEqualTo("LH9742");
+    }
+
+    @Test
+    void should_reload_replaced_snapshot_file() {
+        Path file = directory.resolve("flights.snapshot");
+        FlightCatalogueSnapshot.write(FlightCatalogue.of(MockFlightCatalogue.FLIGHTS.subList(0, 5)), file);
+        FlightCatalogueHolder systemUnderTest = new FlightCatalogueHolder(
+            new FlightCatalogueLoader(file.toString(), SyntheticFlights.NONE)
+        );
+        FlightCatalogue previous = systemUnderTest.current().catalogue();
+
+        FlightCatalogueSnapshot.write(FlightCatalogue.of(MockFlightCatalogue.FLIGHTS), file);
+        FlightCatalogueEndpoint.CatalogueStatus status = new FlightCatalogueEndpoint(systemUnderTest).reload();
+
+        assertThat(previous.size()).isEqualTo(5);
+        assertThat(previous.route("FRA", "MSP").get(0).id()).isEqualTo("LH9742");
+        assertThat(status.flights()).isEqualTo(MockFlightCatalogue.FLIGHTS.size());
+        assertThat(status.routes()).isEqualTo(8);
+        assertThat(status.version()).isEqualTo(systemUnderTest.current().version());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FlightCatalogueSnapshotTest {
+
+    private static final FlightCatalogue CATALOGUE = FlightCatalogue.of(MockFlightCatalogue.FLIGHTS);
+
+    @TempDir
+    private Path directory;
+
+    private FlightCatalogue writeAndMap() {
+        Path file = directory.resolve("flights.snapshot");
+        FlightCatalogueSnapshot.write(CATALOGUE, file);
+
+        return FlightCatalogueSnapshot.map(file);
+    }
+
+    @ParameterizedTest(name = "Scenario for route {0}-{1}")
+    @CsvSource({ "FRA,MSP", "LAX,JFK", "MSP,JFK", "CDG,LHR", "JFK,ORD", "SFO,SEA", "BOS,MIA", "SFO,BOS" })
+    void should_serve_same_flights_from_mapped_snapshot(final String origin, final String destination) {
+        RouteBucket expected = CATALOGUE.route(origin, destination);
+        RouteBucket actual = writeAndMap().route(origin, destination);
+
+        assertThat(actual.size()).isEqualTo(expected.size()).isPositive();
+        assertThat(IntStream.range(0, actual.size()).mapToObj(actual::get))
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(IntStream.range(0, expected.size()).mapToObj(expected::get).toList());
+    }
+
+    @Test
+    void should_keep_catalogue_size_codes_and_departure_index() {
+        FlightCatalogue mapped = writeAndMap();
+        RouteBucket route = mapped.route("FRA", "MSP");
+        Instant from = Instant.parse("2025-01-02T00:00:00Z");
+
+        assertThat(mapped.size()).isEqualTo(CATALOGUE.size());
+        assertThat(mapped.codes().size()).isEqualTo(CATALOGUE.codes().size());
+        assertThat(mapped.knownContentHash()).hasValue(CATALOGUE.contentHash());
+        assertThat(mapped.route("FRA", "JFK").size()).isZero();
+        assertThat(route.lowerBound(from)).isEqualTo(CATALOGUE.route("FRA", "MSP").lowerBound(from));
+        assertThat(route.get(route.lowerBound(from))).extracting(FlightItem::id).isEqualTo("LH2093");
+    }
+
+    @Test
+    void should_write_snapshot_of_the_catalogue_configured_by_the_arguments() throws Exception {
+        Path file = directory.resolve("synthetic/flights.snapshot");
+
+        FlightCatalogueSnapshotWriter.main(
+            new String[] { file.toString(), "--flightsearch.catalogue.synthetic.flights=1000" }
+        );
+
+        FlightCatalogue expected = FlightCatalogue.of(new SyntheticFlights(1_000, 42, 300, 1.0, 0.2).generate());
+        FlightCatalogue mapped = FlightCatalogueSnapshot.map(file);
+        assertThat(mapped.size()).isEqualTo(1_000);
+        assertThat(mapped.codes().size()).isEqualTo(expected.codes().size());
+    }
+
+    @Test
+    void should_reject_file_which_is_not_a_snapshot() throws IOException {
+        Path file = Files.writeString(directory.resolve("flights.json"), "[{\"id\":\"FL1001\"}]");
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> FlightCatalogueSnapshot.map(file))
+            .withMessageStartingWith("Not a catalogue snapshot");
+    }
+}
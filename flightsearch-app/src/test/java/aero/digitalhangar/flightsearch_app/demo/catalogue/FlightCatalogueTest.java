@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FlightCatalogueTest {
+
+    private static final FlightCatalogue CATALOGUE = FlightCatalogue.of(
+        List.of(
+            flight("FL3", "2025-01-03T10:00:00Z", "2025-01-03T12:30:00Z", "FRA", "MSP"),
+            flight("FL1", "2025-01-01T10:00:00+02:00", "2025-01-01T12:00:00Z", "FRA", "MSP"),
+            flight("FL2", "2025-01-02T10:00:00Z", "2025-01-02T11:00:00Z", "fra", "msp"),
+            flight("FL4", "2025-01-02T10:00:00Z", "2025-01-02T11:00:00Z", "MSP", "FRA")
+        )
+    );
+
+    private static final FlightCatalogue PRICED_CATALOGUE = FlightCatalogue.of(
+        List.of(
+            priced("FP1", "2025-01-01T10:00:00Z", 300, FareClass.B),
+            priced("FP2", "2025-01-02T10:00:00Z", 100, FareClass.E),
+            priced("FP3", "2025-01-03T10:00:00Z", 400, FareClass.F),
+            priced("FP4", "2025-01-04T10:00:00Z", 300, FareClass.B),
+            priced("FP5", "2025-01-05T10:00:00Z", 200, FareClass.P)
+        )
+    );
+
+    private static FlightItem flight(
+        final String id,
+        final String departure,
+        final String arrival,
+        final String origin,
+        final String destination
+    ) {
+        return new FlightItem(
+            id,
+            departure,
+            arrival,
+            origin,
+            destination,
+            "LH",
+            10000,
+            "USD",
+            FareClass.E,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    private static FlightItem priced(
+        final String id,
+        final String departure,
+        final int price,
+        final FareClass fareClass
+    ) {
+        return new FlightItem(
+            id,
+            departure,
+            Instant.parse(departure).plusSeconds(3600).toString(),
+            "FRA",
+            "MSP",
+            "LH",
+            price,
+            "USD",
+            fareClass,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    @Test
+    void should_group_flights_by_normalized_route_sorted_by_departure() {
+        RouteBucket route = CATALOGUE.route("Fra", "MSP");
+
+        assertThat(IntStream.range(0, route.size()).mapToObj(route::get))
+            .extracting(FlightItem::id)
+            .containsExactly("FL1", "FL2", "FL3");
+        assertThat(CATALOGUE.size()).isEqualTo(4);
+    }
+
+    @Test
+    void should_expose_parsed_departure_arrival_and_duration() {
+        RouteBucket route = CATALOGUE.route("FRA", "MSP");
+
+        assertThat(route.departure(0)).isEqualTo(Instant.parse("2025-01-01T08:00:00Z").getEpochSecond());
+        assertThat(route.arrival(0)).isEqualTo(Instant.parse("2025-01-01T12:00:00Z").getEpochSecond());
+        assertThat(route.duration(0)).isEqualTo(4 * 3600);
+        assertThat(route.duration(2)).isEqualTo(150 * 60);
+    }
+
+    @Test
+    void should_materialize_flights_from_columns() {
+        FlightItem segmented = new FlightItem(
+            "FL5",
+            "2025-01-05T10:00:00Z",
+            "2025-01-05T20:00:00Z",
+            "FRA",
+            "MSP",
+            "LH",
+            25000,
+            "EUR",
+            FareClass.B,
+            FlightType.SEGMENTED,
+            new FlightItem[] {
+                flight("FL5A", "2025-01-05T10:00:00Z", "2025-01-05T14:00:00Z", "FRA", "JFK"),
+                flight("FL5B", "2025-01-05T16:00:00Z", "2025-01-05T20:00:00Z", "JFK", "MSP"),
+            }
+        );
+        FlightCatalogue catalogue = FlightCatalogue.of(List.of(segmented, CATALOGUE.route("FRA", "MSP").get(0)));
+        RouteBucket route = catalogue.route("FRA", "MSP");
+
+        assertThat(route.get(1)).usingRecursiveComparison().isEqualTo(segmented);
+        assertThat(route.get(0).departureDateTime()).isEqualTo("2025-01-01T08:00:00Z");
+        assertThat(route.get(0).viaFlightItems()).isEmpty();
+        assertThat(route.id(1)).isEqualTo("FL5");
+        assertThat(route.price(1)).isEqualTo(25000);
+        assertThat(route.fareClass(1)).isEqualTo(FareClass.B);
+        assertThat(route.flightType(1)).isEqualTo(FlightType.SEGMENTED);
+        assertThat(catalogue.codes().find("JFK")).isNotEqualTo(CodeTable.UNKNOWN);
+        assertThat(catalogue.codes().find("ORD")).isEqualTo(CodeTable.UNKNOWN);
+    }
+
+    @ParameterizedTest(name = "Scenario for departures from {0} to {1}")
+    @CsvSource(
+        {
+            ",,0,3",
+            "2025-01-02T10:00:00Z,,1,3",
+            "2025-01-02T10:00:00.1Z,,2,3",
+            ",2025-01-02T10:00:00Z,0,1",
+            ",2025-01-02T10:00:00.1Z,0,2",
+            "2025-01-04T00:00:00Z,,3,3",
+        }
+    )
+    void should_locate_departure_window_bounds(
+        final Instant from,
+        final Instant to,
+        final int expectedLowerBound,
+        final int expectedUpperBound
+    ) {
+        RouteBucket route = CATALOGUE.route("FRA", "MSP");
+
+        assertThat(route.lowerBound(from)).isEqualTo(expectedLowerBound);
+        assertThat(route.upperBound(to)).isEqualTo(expectedUpperBound);
+    }
+
+    @ParameterizedTest(name = "Scenario for departures from {0} to {1} of type {2}")
+    @CsvSource(
+        {
+            ",,,2025-01-01 DIRECT 200 EUR;2025-01-01 DIRECT 300 USD;2025-01-01 SEGMENTED 500 USD;2025-01-02 DIRECT 200 GBP;2025-01-02 DIRECT 200 USD;2025-01-04 SEGMENTED 100 USD",
+            "2025-01-02T00:00:00Z,2025-01-04T00:00:00Z,,2025-01-02 DIRECT 200 GBP;2025-01-02 DIRECT 200 USD",
+            "2025-01-01T00:00:00Z,2025-01-02T00:00:00Z,DIRECT,2025-01-01 DIRECT 200 EUR;2025-01-01 DIRECT 300 USD",
+            ",,SEGMENTED,2025-01-01 SEGMENTED 500 USD;2025-01-04 SEGMENTED 100 USD",
+            "2025-01-01T07:00:00Z,2025-01-01T23:00:00Z,DIRECT,''",
+        }
+    )
+    void should_select_cheapest_flight_per_departure_day_type_and_currency(
+        final Instant from,
+        final Instant to,
+        final FlightType flightType,
+        final String expectedCalendar
+    ) {
+        RouteBucket route = FlightCatalogue
+            .of(
+                List.of(
+                    fare("FC1", "2025-01-01T06:00:00Z", 300, "USD", FlightType.DIRECT),
+                    fare("FC2", "2025-01-01T23:30:00Z", 200, "EUR", FlightType.DIRECT),
+                    fare("FC3", "2025-01-01T12:00:00Z", 500, "USD", FlightType.SEGMENTED),
+                    fare("FC4", "2025-01-02T00:00:00Z", 200, "USD", FlightType.DIRECT),
+                    fare("FC5", "2025-01-02T08:00:00Z", 200, "GBP", FlightType.DIRECT),
+                    fare("FC6", "2025-01-04T09:00:00Z", 100, "USD", FlightType.SEGMENTED)
+                )
+            )
+            .route("FRA", "MSP");
+
+        assertThat(route.fareCalendar(from, to, flightType))
+            .map(day -> day.day() + " " + day.flightType() + " " + day.price() + " " + day.currency())
+            .containsExactly(expectedCalendar.isEmpty() ? new String[] {} : expectedCalendar.split(";"));
+    }
+
+    private static FlightItem fare(
+        final String id,
+        final String departure,
+        final int price,
+        final String currency,
+        final FlightType flightType
+    ) {
+        return new FlightItem(
+            id,
+            departure,
+            Instant.parse(departure).plusSeconds(3600).toString(),
+            "FRA",
+            "MSP",
+            "LH",
+            price,
+            currency,
+            FareClass.E,
+            flightType,
+            new FlightItem[] {}
+        );
+    }
+
+    @ParameterizedTest(name = "Scenario for prices from {0} to {1}")
+    @CsvSource({ ",,'FP2,FP5,FP1,FP4,FP3'", "200,300,'FP5,FP1,FP4'", "301,,FP3", "150,199,''" })
+    void should_locate_price_range_in_price_order(
+        final Integer minPrice,
+        final Integer maxPrice,
+        final String expectedIds
+    ) {
+        RouteBucket route = PRICED_CATALOGUE.route("FRA", "MSP");
+        IntStream rows = route.priceOrder(route.priceLowerBound(minPrice), route.priceUpperBound(maxPrice));
+
+        assertThat(rows.mapToObj(route::id))
+            .containsExactly(expectedIds.isEmpty() ? new String[] {} : expectedIds.split(","));
+    }
+
+    @ParameterizedTest(name = "Scenario for fare classes {0} of rows {1} to {2}")
+    @CsvSource({ "B,0,5,'FP1,FP4'", "'B,F',1,4,'FP3,FP4'", "'E,P,B,F',1,3,'FP2,FP3'", ",0,2,'FP1,FP2'", "P,0,4,''" })
+    void should_list_rows_of_fare_classes(
+        final String fareClasses,
+        final int from,
+        final int to,
+        final String expectedIds
+    ) {
+        RouteBucket route = PRICED_CATALOGUE.route("FRA", "MSP");
+        Set<FareClass> requested = fareClasses == null
+            ? null
+            : Arrays.stream(fareClasses.split(",")).map(FareClass::valueOf).collect(Collectors.toSet());
+
+        assertThat(route.rows(from, to, requested).mapToObj(route::id))
+            .containsExactly(expectedIds.isEmpty() ? new String[] {} : expectedIds.split(","));
+    }
+
+    @Test
+    void should_apply_delta_to_affected_routes_only() {
+        FlightCatalogue updated = CATALOGUE.apply(
+            new CatalogueDelta(
+                List.of(
+                    flight("FL2", "2025-01-04T10:00:00Z", "2025-01-04T11:00:00Z", "FRA", "MSP"),
+                    flight("FL4", "2025-01-02T10:00:00Z", "2025-01-02T11:00:00Z", "FRA", "JFK"),
+                    flight("FL5", "2025-01-01T09:00:00Z", "2025-01-01T10:00:00Z", "FRA", "MSP")
+                ),
+                Set.of("FL3")
+            )
+        );
+        RouteBucket route = updated.route("FRA", "MSP");
+
+        assertThat(IntStream.range(0, route.size()).mapToObj(route::id)).containsExactly("FL1", "FL5", "FL2");
+        assertThat(route.departure(2)).isEqualTo(Instant.parse("2025-01-04T10:00:00Z").getEpochSecond());
+        assertThat(updated.route("FRA", "JFK").id(0)).isEqualTo("FL4");
+        assertThat(updated.route("MSP", "FRA").size()).isZero();
+        assertThat(updated.size()).isEqualTo(4);
+        assertThat(updated.routeCount()).isEqualTo(2);
+        assertThat(CATALOGUE.route("FRA", "MSP").size()).isEqualTo(3);
+        assertThat(CATALOGUE.route("MSP", "FRA").size()).isEqualTo(1);
+    }
+
+    @Test
+    void should_share_adjacency_lists_and_buckets_of_unchanged_routes() {
+        FlightCatalogue updated = CATALOGUE.apply(
+            CatalogueDelta.upsert(flight("FL5", "2025-01-05T10:00:00Z", "2025-01-05T12:00:00Z", "FRA", "JFK"))
+        );
+        RouteNetwork network = updated.network();
+        int frankfurt = network.airport("FRA");
+        int minneapolis = network.airport("MSP");
+
+        assertThat(network.destinations(minneapolis)).isSameAs(CATALOGUE.network().destinations(minneapolis));
+        assertThat(network.route(minneapolis, frankfurt)).isSameAs(CATALOGUE.route("MSP", "FRA"));
+        assertThat(network.destinations(frankfurt)).isNotSameAs(CATALOGUE.network().destinations(frankfurt)).hasSize(2);
+        assertThat(network.route(frankfurt, minneapolis)).isSameAs(CATALOGUE.route("FRA", "MSP"));
+        assertThat(updated.routeCount()).isEqualTo(3);
+        assertThat(CATALOGUE.routeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void should_hash_content_independent_of_load_order_and_deltas() {
+        List<FlightItem> flights = List.of(
+            flight("FL1", "2025-01-01T10:00:00+02:00", "2025-01-01T12:00:00Z", "FRA", "MSP"),
+            flight("FL2", "2025-01-02T10:00:00Z", "2025-01-02T11:00:00Z", "FRA", "MSP"),
+            flight("FL3", "2025-01-02T10:00:00Z", "2025-01-02T11:00:00Z", "MSP", "FRA")
+        );
+        FlightCatalogue catalogue = FlightCatalogue.of(flights);
+        long contentHash = catalogue.contentHash();
+
+        FlightCatalogue updated = catalogue.apply(CatalogueDelta.delete("FL2"));
+
+        assertThat(FlightCatalogue.of(flights.reversed()).contentHash()).isEqualTo(contentHash);
+        assertThat(updated.contentHash())
+            .isNotEqualTo(contentHash)
+            .isEqualTo(FlightCatalogue.of(List.of(flights.get(0), flights.get(2))).contentHash());
+        assertThat(updated.apply(CatalogueDelta.upsert(flights.get(1))).contentHash()).isEqualTo(contentHash);
+    }
+
+    @Test
+    void should_track_ids_across_consecutive_deltas() {
+        FlightCatalogue moved = CATALOGUE.apply(
+            CatalogueDelta.upsert(flight("FL1", "2025-01-01T10:00:00Z", "2025-01-01T12:00:00Z", "CDG", "LHR"))
+        );
+        FlightCatalogue deleted = moved.apply(CatalogueDelta.delete("FL1", "FL9"));
+
+        assertThat(moved.route("CDG", "LHR").id(0)).isEqualTo("FL1");
+        assertThat(moved.route("FRA", "MSP").size()).isEqualTo(2);
+        assertThat(deleted.route("CDG", "LHR").size()).isZero();
+        assertThat(deleted.route("FRA", "MSP").size()).isEqualTo(2);
+        assertThat(deleted.size()).isEqualTo(3);
+    }
+
+    @Test
+    void should_list_routes_leaving_an_airport_by_airport_codes() {
+        FlightCatalogue updated = CATALOGUE.apply(
+            CatalogueDelta.upsert(flight("FL4", "2025-01-02T10:00:00Z", "2025-01-02T18:00:00Z", "FRA", "JFK"))
+        );
+        RouteNetwork network = updated.network();
+        int origin = network.airport("FRA");
+        int[] destinations = network.destinations(origin);
+
+        assertThat(Arrays.stream(destinations).mapToObj(network::decode)).containsExactlyInAnyOrder("MSP", "JFK");
+        assertThat(network.route(origin, network.airport("JFK")).id(0)).isEqualTo("FL4");
+        assertThat(network.destinations(network.airport("MSP"))).isEmpty();
+        assertThat(network.destinations(network.airport("XXX"))).isEmpty();
+        assertThat(CATALOGUE.network().destinations(CATALOGUE.network().airport("MSP"))).hasSize(1);
+    }
+
+    @ParameterizedTest(name = "Scenario for route {0}-{1}")
+    @CsvSource({ "FRA,JFK", ",MSP", "FRA," })
+    void should_return_empty_bucket_for_unknown_route(final String origin, final String destination) {
+        assertThat(CATALOGUE.route(origin, destination).size()).isZero();
+    }
+}
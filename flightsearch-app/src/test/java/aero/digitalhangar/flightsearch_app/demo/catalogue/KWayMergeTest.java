@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class KWayMergeTest {
+
+    @ParameterizedTest(name = "Scenario for sources {0}")
+    @CsvSource(
+        {
+            "'1,4,9;2,3,10;5', '1,2,3,4,5,9,10'",
+            "'1,2,3', '1,2,3'",
+            "';2,2;;1', '1,2,2'",
+            "';', ''",
+        }
+    )
+    void should_merge_sorted_sources_in_order(final String sources, final String expected) {
+        List<Stream<Integer>> streams = Arrays.stream(sources.split(";", -1)).map(KWayMergeTest::integers).toList();
+
+        assertThat(KWayMerge.merge(streams, Comparator.naturalOrder()))
+            .containsExactlyElementsOf(integers(expected).toList());
+    }
+
+    private static Stream<Integer> integers(final String values) {
+        return Arrays.stream(values.split(",")).filter(value -> !value.isEmpty()).map(Integer::valueOf);
+    }
+
+    @Test
+    void should_pull_only_heads_and_merged_elements() {
+        AtomicInteger pulled = new AtomicInteger();
+        List<Stream<Integer>> sources = IntStream
+            .range(0, 3)
+            .mapToObj(source -> Stream.iterate(source, value -> value + 3).peek(value -> pulled.incrementAndGet()))
+            .toList();
+
+        assertThat(KWayMerge.merge(sources, Comparator.naturalOrder()).limit(5)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(pulled).hasValue(5 + 2);
+    }
+}
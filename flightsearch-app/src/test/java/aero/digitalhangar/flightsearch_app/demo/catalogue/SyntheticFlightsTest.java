@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SyntheticFlightsTest {
+
+    private static final List<FlightItem> FLIGHTS = new SyntheticFlights(10_000, 1, 100, 1, 0.2).generate();
+
+    @Test
+    void should_generate_the_same_flights_for_the_same_seed() {
+        assertThat(FLIGHTS)
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(new SyntheticFlights(10_000, 1, 100, 1, 0.2).generate());
+        assertThat(FLIGHTS)
+            .usingRecursiveFieldByFieldElementComparator()
+            .isNotEqualTo(new SyntheticFlights(10_000, 2, 100, 1, 0.2).generate());
+    }
+
+    @Test
+    void should_load_generated_flights_if_configured() {
+        FlightCatalogue catalogue = new FlightCatalogueLoader("", new SyntheticFlights(1_000, 1, 20, 1, 0.2)).load();
+
+        assertThat(catalogue.size()).isEqualTo(1_000);
+        assertThat(SyntheticFlights.NONE.enabled()).isFalse();
+    }
+
+    @Test
+    void should_concentrate_flights_on_hubs_with_route_skew() {
+        long uniformHubFlights = hubFlights(new SyntheticFlights(10_000, 1, 100, 0, 0).generate());
+        long skewedHubFlights = hubFlights(new SyntheticFlights(10_000, 1, 100, 1.5, 0).generate());
+
+        assertThat(uniformHubFlights).isLessThan(1_000);
+        assertThat(skewedHubFlights).isGreaterThan(5_000);
+    }
+
+    @Test
+    void should_compose_segmented_flights_of_consistent_legs() {
+        List<FlightItem> segmented = FLIGHTS
+            .stream()
+            .filter(flight -> flight.flightType() == FlightType.SEGMENTED)
+            .toList();
+
+        assertThat(segmented).hasSizeBetween(1_800, 2_200);
+        assertThat(segmented).allSatisfy(flight -> {
+            FlightItem first = flight.viaFlightItems()[0];
+            FlightItem second = flight.viaFlightItems()[1];
+            Duration connection = Duration.between(
+                Instant.parse(first.arrivalDateTime()),
+                Instant.parse(second.departureDateTime())
+            );
+
+            assertThat(flight.viaFlightItems()).hasSize(2).allMatch(leg -> leg.flightType() == FlightType.DIRECT);
+            assertThat(List.of(first.id(), second.id())).containsExactly(flight.id() + "-C1", flight.id() + "-C2");
+            assertThat(List.of(first.origin(), first.destination(), second.destination()))
+                .doesNotHaveDuplicates()
+                .containsExactly(flight.origin(), second.origin(), flight.destination());
+            assertThat(List.of(first.departureDateTime(), second.arrivalDateTime()))
+                .containsExactly(flight.departureDateTime(), flight.arrivalDateTime());
+            assertThat(connection).isBetween(Duration.ofMinutes(45), Duration.ofHours(4));
+            assertThat(first.price() + second.price()).isEqualTo(flight.price());
+            assertThat(flight.viaFlightItems())
+                .allMatch(leg -> leg.fareClass() == flight.fareClass())
+                .allMatch(leg -> leg.airlineCode().equals(flight.airlineCode()));
+        });
+    }
+
+    @Test
+    void should_schedule_departures_in_daytime_banks_within_the_schedule() {
+        List<Instant> departures = FLIGHTS.stream().map(flight -> Instant.parse(flight.departureDateTime())).toList();
+        Instant scheduleEnd = SyntheticFlights.SCHEDULE_START.plus(Duration.ofDays(SyntheticFlights.SCHEDULE_DAYS));
+
+        assertThat(departures)
+            .allMatch(departure -> departure.getEpochSecond() % 300 == 0)
+            .allMatch(departure -> !departure.isBefore(SyntheticFlights.SCHEDULE_START))
+            .allMatch(departure -> departure.isBefore(scheduleEnd))
+            .noneMatch(departure -> List.of(1, 2, 3).contains(departure.atOffset(ZoneOffset.UTC).getHour()));
+        assertThat(departures.stream().filter(departure -> departure.atOffset(ZoneOffset.UTC).getHour() == 8))
+            .hasSizeGreaterThan(departures.size() / 20);
+    }
+
+    @ParameterizedTest(name = "Scenario for {0} flights, {1} airports, route skew {2}, segmented share {3}")
+    @CsvSource({ "-1,10,0,0", "1,1,0,0", "1,2,0,0.5", "1,17577,0,0", "1,10,-1,0", "1,10,NaN,0", "1,10,0,1.5" })
+    void should_reject_invalid_parameters(
+        final int flights,
+        final int airports,
+        final double routeSkew,
+        final double segmentedShare
+    ) {
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new SyntheticFlights(flights, 1, airports, routeSkew, segmentedShare));
+    }
+
+    private static long hubFlights(final List<FlightItem> flights) {
+        return flights
+            .stream()
+            .filter(flight -> flight.origin().equals("AAA") || flight.destination().equals("AAA"))
+            .count();
+    }
+}
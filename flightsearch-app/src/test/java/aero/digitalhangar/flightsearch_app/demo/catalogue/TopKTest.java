@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.catalogue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TopKTest {
+
+    @ParameterizedTest(name = "Scenario for k = {0} of {1}")
+    @CsvSource({ "1,'5,1,9,3',1", "3,'5,1,9,3,7,2','1,2,3'", "10,'5,1,9','1,5,9'" })
+    void should_keep_smallest_elements_in_order(final int k, final String input, final String expected) {
+        TopK<Integer> topK = new TopK<>(k, Comparator.naturalOrder());
+        Arrays.stream(input.split(",")).map(Integer::valueOf).forEach(topK::offer);
+
+        assertThat(topK.toSortedList())
+            .containsExactlyElementsOf(Arrays.stream(expected.split(",")).map(Integer::valueOf).toList());
+    }
+
+    @Test
+    void should_collect_parallel_stream() {
+        List<Integer> top = IntStream
+            .range(0, 1000)
+            .boxed()
+            .parallel()
+            .collect(TopK.collector(5, Comparator.<Integer>reverseOrder()));
+
+        assertThat(top).containsExactly(999, 998, 997, 996, 995);
+    }
+
+    @Test
+    void should_reject_empty_selection() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TopK<Integer>(0, Comparator.naturalOrder()));
+    }
+}
@@ -12,6 +12,7 @@ import aero.digitalhangar.flightsearch_app.commons.error.model.ErrorMessage;
 import aero.digitalhangar.flightsearch_app.commons.error.model.ProcessingError;
 import aero.digitalhangar.flightsearch_app.commons.error.model.UniqueError;
 import aero.digitalhangar.flightsearch_app.demo.model.BookingNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightProvidersUnavailableException;
 import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceNotFoundException;
 import java.util.Set;
@@ -105,4 +106,30 @@ class CustomExceptionHandlerTest {
                     )
             );
     }
+
+    @Test
+    void should_return_retryable_error_for_flight_providers_unavailable_exception() {
+        assertThat(
+            systemUnderTest.handleFlightProvidersUnavailableException(new FlightProvidersUnavailableException())
+        )
+            .isEqualTo(
+                ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(
+                        ErrorMessage
+                            .builder()
+                            .type(ErrorMessage.TypeEnum.E)
+                            .retryIndicator(Boolean.TRUE)
+                            .processingErrors(
+                                Set.of(
+                                    ProcessingError
+                                        .builder(UniqueError.SERVICE_UNAVAILABLE)
+                                        .description("No flight provider answered in time")
+                                        .build()
+                                )
+                            )
+                            .build()
+                    )
+            );
+    }
 }
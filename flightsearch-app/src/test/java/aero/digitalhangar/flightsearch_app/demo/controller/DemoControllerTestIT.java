@@ -10,15 +10,21 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import aero.digitalhangar.flightsearch_app.commons.error.handler.HttpMessageNotReadableHandler;
 import aero.digitalhangar.flightsearch_app.commons.web.CallIdProvider;
+import aero.digitalhangar.flightsearch_app.commons.web.header.HeaderConstants;
 import aero.digitalhangar.flightsearch_app.demo.model.ServiceItem;
 import aero.digitalhangar.flightsearch_app.demo.service.DemoService;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 import lombok.SneakyThrows;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -29,6 +35,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.json.BasicJsonTester;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -88,6 +95,39 @@ class DemoControllerTestIT {
         verify(demoService, times(1)).getServicesFromBooking(any());
     }
 
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for If-None-Match: {0}")
+    @ValueSource(strings = { "\"booking-tag\"", "W/\"booking-tag\"", "\"other\", \"booking-tag\"", "*" })
+    void should_answer_not_modified_without_retrieving_services(final String ifNoneMatch) {
+        when(demoService.eTag("ABCDEF")).thenReturn(Optional.of("\"booking-tag\""));
+
+        this.mockMvc.perform(get("/bookings/ABCDEF/services").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+            .andDo(log())
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"booking-tag\""))
+            .andExpect(header().exists(HeaderConstants.VERSION))
+            .andExpect(header().exists(HeaderConstants.ENVIRONMENT))
+            .andExpect(content().string(""));
+
+        verify(demoService, never()).getServicesFromBooking(any());
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for If-None-Match: {0}")
+    @ValueSource(strings = { "", "\"other\"" })
+    void should_retrieve_services_with_entity_tag_if_modified(final String ifNoneMatch) {
+        when(demoService.eTag("ABCDEF")).thenReturn(Optional.of("\"booking-tag\""));
+        when(demoService.getServicesFromBooking("ABCDEF")).thenReturn(List.of(new ServiceItem("OT01", "HK")));
+
+        this.mockMvc.perform(get("/bookings/ABCDEF/services").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"booking-tag\""))
+            .andExpect(content().json("[{\"id\":\"OT01\"}]"));
+
+        verify(demoService, times(1)).getServicesFromBooking("ABCDEF");
+    }
+
     @SneakyThrows
     @ParameterizedTest(name = "Scenario for booking ID: {0}")
     @ValueSource(strings = { "A", "AA", "AAA", "AAAA", "AAAAA", "AAAAAAX", "AAA.AA" })
@@ -5,26 +5,65 @@
  */
 package aero.digitalhangar.flightsearch_app.demo.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import aero.digitalhangar.flightsearch_app.commons.error.handler.HttpMessageNotReadableHandler;
 import aero.digitalhangar.flightsearch_app.commons.web.CallIdProvider;
+import aero.digitalhangar.flightsearch_app.commons.web.PreSerializedJson;
+import aero.digitalhangar.flightsearch_app.commons.web.header.HeaderConstants;
+import aero.digitalhangar.flightsearch_app.demo.model.FareCalendarDay;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightBatchRequest;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.FareCalendarService;
 import aero.digitalhangar.flightsearch_app.demo.service.FlightSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -42,6 +81,9 @@ public class FlightSearchControllerTestIT {
     @MockitoBean
     private FlightSearchService flightSearchService;
 
+    @MockitoBean
+    private FareCalendarService fareCalendarService;
+
     @SneakyThrows
     @ParameterizedTest(name = "Scenario for origin and destination: {0}")
     @ValueSource(strings = { "FRA,MSP" })
@@ -57,8 +99,514 @@ public class FlightSearchControllerTestIT {
             .getResponse()
             .getContentAsString(StandardCharsets.UTF_8);
 
-        verify(flightSearchService, atLeast(1)).getFlightsFromSearch(any(), any(), any(), any(), any());
-        verify(flightSearchService, atMost(10)).getFlightsFromSearch(any(), any(), any(), any(), any());
+        verify(flightSearchService, atLeast(1)).getFlightsFromSearch(any());
+        verify(flightSearchService, atMost(10)).getFlightsFromSearch(any());
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for departure parameters: {0}")
+    @CsvSource(
+        delimiter = ';',
+        value = {
+            "departureDay=2025-01-02;2025-01-02T00:00:00Z;2025-01-03T00:00:00Z",
+            "departureFrom=2025-01-02T06:00:00Z&departureTo=2025-01-02T18:00:00Z;2025-01-02T06:00:00Z;2025-01-02T18:00:00.000000001Z",
+            "departureDay=2025-01-02&departureFrom=2025-01-02T06:00:00Z;2025-01-02T06:00:00Z;2025-01-03T00:00:00Z",
+            "departureDate=2025-01-02T08:00:00Z;2025-01-02T08:00:00Z;2025-01-02T08:00:00.000000001Z",
+        }
+    )
+    void should_search_flights_within_requested_departure_window(
+        final String query,
+        final Instant expectedFrom,
+        final Instant expectedTo
+    ) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isOk());
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(flightSearchService).getFlightsFromSearch(criteria.capture());
+
+        assertThat(criteria.getValue())
+            .returns("FRA", FlightSearchCriteria::origin)
+            .returns("MSP", FlightSearchCriteria::destination)
+            .returns(expectedFrom, FlightSearchCriteria::departureFrom)
+            .returns(expectedTo, FlightSearchCriteria::departureTo);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for departure parameters: {0}")
+    @ValueSource(strings = { "departureDay=02.01.2025", "departureFrom=tomorrow", "departureDate=2025-01-02" })
+    void should_reject_malformed_departure_parameters(final String query) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for selection parameters: {0}")
+    @CsvSource(
+        delimiter = ';',
+        value = {
+            ";DEPARTURE;10",
+            "sort=price;PRICE;10",
+            "sort=DURATION&limit=1;DURATION;1",
+            "limit=100;DEPARTURE;100",
+        }
+    )
+    void should_search_flights_with_requested_order_and_limit(
+        final String query,
+        final FlightSortKey expectedSortBy,
+        final Integer expectedLimit
+    ) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + (query == null ? "" : query)))
+            .andDo(log())
+            .andExpect(status().isOk());
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(flightSearchService).getFlightsFromSearch(criteria.capture());
+
+        assertThat(criteria.getValue())
+            .returns(expectedSortBy, FlightSearchCriteria::sortBy)
+            .returns(expectedLimit, FlightSearchCriteria::limit);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for fare parameters: {0}")
+    @CsvSource(
+        delimiter = ';',
+        value = {
+            "fareClass=B;B;;",
+            "fareClass=b,F&minPrice=10000&maxPrice=50000;B,F;10000;50000",
+            "fareClass=E&fareClass=business;E,B;;",
+            "maxPrice=0;;;0",
+        }
+    )
+    void should_search_flights_with_requested_fare_filters(
+        final String query,
+        final String expectedFareClasses,
+        final Integer expectedMinPrice,
+        final Integer expectedMaxPrice
+    ) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isOk());
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(flightSearchService).getFlightsFromSearch(criteria.capture());
+
+        assertThat(criteria.getValue())
+            .returns(
+                expectedFareClasses == null
+                    ? null
+                    : Arrays.stream(expectedFareClasses.split(",")).map(FareClass::valueOf).collect(Collectors.toSet()),
+                FlightSearchCriteria::fareClasses
+            )
+            .returns(expectedMinPrice, FlightSearchCriteria::minPrice)
+            .returns(expectedMaxPrice, FlightSearchCriteria::maxPrice);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for selection parameters: {0}")
+    @ValueSource(
+        strings = {
+            "limit=0",
+            "limit=101",
+            "limit=ten",
+            "sort=cheapest",
+            "fareClass=X",
+            "minPrice=-1",
+            "maxPrice=cheap",
+        }
+    )
+    void should_reject_invalid_selection_parameters(final String query) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for page size: {0}")
+    @CsvSource({ "1,true", "2,false" })
+    void should_return_next_cursor_for_full_page(final int limit, final boolean expectCursor) {
+        FlightItem flight = flight("LH9742");
+        when(flightSearchService.getFlightsFromSearch(any())).thenReturn(List.of(flight));
+
+        String nextCursor = FlightCursor.after(FlightSortKey.PRICE, flight).encode();
+
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&sort=price&limit=" + limit))
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(
+                expectCursor
+                    ? header().string(HeaderConstants.NEXT_CURSOR, nextCursor)
+                    : header().doesNotExist(HeaderConstants.NEXT_CURSOR)
+            );
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for sort parameter: {0}")
+    @CsvSource(delimiter = ';', value = { ";PRICE", "sort=price;PRICE" })
+    void should_resume_search_after_cursor(final String query, final FlightSortKey expectedSortBy) {
+        FlightCursor cursor = new FlightCursor(FlightSortKey.PRICE, 24573, 1735718400, "LH9742");
+
+        String parameters = "cursor=" + cursor.encode() + (query == null ? "" : "&" + query);
+
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + parameters))
+            .andDo(log())
+            .andExpect(status().isOk());
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(flightSearchService).getFlightsFromSearch(criteria.capture());
+
+        assertThat(criteria.getValue())
+            .returns(expectedSortBy, FlightSearchCriteria::sortBy)
+            .returns(cursor, FlightSearchCriteria::after);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for cursor parameters: {0}")
+    @ValueSource(
+        strings = {
+            "cursor=LH9742",
+            "cursor=AQkAAAAAAAAAAAAAAAAAAAAAeA",
+            "cursor=AQIAAAAAAABf_QAAAABndPYATEg5NzQy&sort=arrival",
+        }
+    )
+    void should_reject_invalid_cursor(final String query) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for selection parameters: {0}")
+    @ValueSource(strings = { "", "sort=price&limit=1000" })
+    void should_stream_flights_as_ndjson(final String query) {
+        when(flightSearchService.streamFlightsFromSearch(any()))
+            .thenReturn(Stream.of(flight("LH9742"), flight("LH7500")));
+
+        String body =
+            this.mockMvc.perform(
+                    get("/flights?origin=FRA&destination=MSP&" + query).accept(MediaType.APPLICATION_NDJSON)
+                )
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body.split("\n"))
+            .satisfiesExactly(
+                line -> assertThat(line).startsWith("{\"id\":\"LH9742\""),
+                line -> assertThat(line).startsWith("{\"id\":\"LH7500\"")
+            );
+        verify(flightSearchService, never()).getFlightsFromSearch(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void should_write_pre_serialized_flights_with_entity_tag() {
+        when(flightSearchService.getFlightsFromSearch(any())).thenReturn(new PreSerializedFlights(flight("LH9742")));
+
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP"))
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, PreSerializedFlights.ETAG))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, PreSerializedFlights.JSON.length))
+            .andExpect(content().bytes(PreSerializedFlights.JSON));
+    }
+
+    @SneakyThrows
+    @Test
+    void should_answer_not_modified_without_searching() {
+        when(flightSearchService.eTag(any())).thenReturn(Optional.of(PreSerializedFlights.ETAG));
+
+        this.mockMvc.perform(
+                get("/flights?origin=FRA&destination=MSP").header(HttpHeaders.IF_NONE_MATCH, PreSerializedFlights.ETAG)
+            )
+            .andDo(log())
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, PreSerializedFlights.ETAG))
+            .andExpect(header().exists(HeaderConstants.VERSION))
+            .andExpect(header().exists(HeaderConstants.ENVIRONMENT))
+            .andExpect(header().exists(HeaderConstants.RESPONSE_TIME))
+            .andExpect(content().string(""));
+
+        verify(flightSearchService, never()).getFlightsFromSearch(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void should_search_flights_if_modified() {
+        when(flightSearchService.eTag(any())).thenReturn(Optional.of(PreSerializedFlights.ETAG));
+        when(flightSearchService.getFlightsFromSearch(any())).thenReturn(new PreSerializedFlights(flight("LH9742")));
+
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, PreSerializedFlights.ETAG))
+            .andExpect(content().bytes(PreSerializedFlights.JSON));
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for selection parameters: {0}")
+    @ValueSource(strings = { "limit=0", "limit=10001", "cursor=LH9742" })
+    void should_reject_invalid_stream_parameters(final String query) {
+        this.mockMvc.perform(get("/flights?origin=FRA&destination=MSP&" + query).accept(MediaType.APPLICATION_NDJSON))
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for origin and destination: {0}")
+    @ValueSource(strings = { "FRA,JFK" })
+    void should_answer_not_found_before_streaming(final String input) {
+        String[] parts = input.split(",");
+        when(flightSearchService.streamFlightsFromSearch(any())).thenThrow(new FlightsNotFoundException());
+
+        this.mockMvc.perform(
+                get("/flights?origin=" + parts[0] + "&destination=" + parts[1]).accept(MediaType.APPLICATION_NDJSON)
+            )
+            .andDo(log())
+            .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    @Test
+    void should_not_answer_batch_as_ndjson() {
+        this.mockMvc.perform(
+                post("/flights/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .content("{ \"queries\": [{ \"origin\": \"FRA\", \"destination\": \"MSP\" }] }")
+            )
+            .andDo(log())
+            .andExpect(status().isNotAcceptable());
+    }
+
+    @SneakyThrows
+    @Test
+    void should_answer_each_query_of_batch() {
+        when(flightSearchService.getFlightsFromSearch(any()))
+            .thenAnswer(invocation ->
+                switch (invocation.<FlightSearchCriteria>getArgument(0).origin()) {
+                    case "FRA" -> List.of(flight("LH9742"));
+                    case "MUC" -> throw new FlightsNotFoundException();
+                    default -> throw new IllegalStateException("engine failure");
+                }
+            );
+
+        this.mockMvc.perform(
+                post("/flights/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        """
+                        {
+                          "queries": [
+                            { "origin": "FRA", "destination": "MSP", "sort": "price", "limit": 1 },
+                            { "origin": "MUC", "destination": "MSP" },
+                            { "origin": "FRA", "destination": "MSP", "sort": "price", "cursor": "LH9742" },
+                            { "origin": "LAX", "destination": "JFK" }
+                          ]
+                        }"""
+                    )
+            )
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results.length()").value(4))
+            .andExpect(jsonPath("$.results[0].flights[0].id").value("LH9742"))
+            .andExpect(jsonPath("$.results[0].nextCursor").isNotEmpty())
+            .andExpect(jsonPath("$.results[0].error").doesNotExist())
+            .andExpect(jsonPath("$.results[1].flights").doesNotExist())
+            .andExpect(jsonPath("$.results[1].error.processingErrors[0].code").value("40400"))
+            .andExpect(jsonPath("$.results[2].error.processingErrors[0].code").value("40003"))
+            .andExpect(jsonPath("$.results[3].error.processingErrors[0].code").value("50000"));
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(flightSearchService, times(3)).getFlightsFromSearch(criteria.capture());
+        assertThat(criteria.getAllValues())
+            .filteredOn(searched -> "FRA".equals(searched.origin()))
+            .singleElement()
+            .returns(FlightSortKey.PRICE, FlightSearchCriteria::sortBy)
+            .returns(1, FlightSearchCriteria::limit);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for batch: {0}")
+    @ValueSource(
+        strings = {
+            "{}",
+            "{ \"queries\": [] }",
+            "{ \"queries\": [{ \"origin\": \"FRA\", \"destination\": \"MSP\" }, null] }",
+            "{ \"queries\": [{ \"origin\": \"FRA\", \"destination\": \"MSP\", \"sort\": \"cheapest\" }] }",
+            "{ \"queries\": [{ \"origin\": \"FRA\", \"departureDay\": \"tomorrow\" }] }",
+        }
+    )
+    void should_reject_invalid_batch(final String body) {
+        this.mockMvc.perform(post("/flights/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for invalid query: {0}")
+    @CsvSource(
+        delimiter = ';',
+        value = {
+            "{ \"origin\": \"FR\", \"destination\": \"MSP\" };40002",
+            "{ \"origin\": \"FRA\", \"destination\": \"MSP\", \"limit\": 0 };40005",
+            "{ \"origin\": \"FRA\", \"destination\": \"MSP\", \"minPrice\": -1 };40005",
+        }
+    )
+    void should_answer_invalid_query_of_batch_with_its_violations(final String invalidQuery, final String code) {
+        when(flightSearchService.getFlightsFromSearch(any())).thenReturn(List.of(flight("LH9742")));
+        String validQuery = "{ \"origin\": \"FRA\", \"destination\": \"MSP\" }";
+
+        this.mockMvc.perform(
+                post("/flights/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{ \"queries\": [" + invalidQuery + ", " + validQuery + "] }")
+            )
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results.length()").value(2))
+            .andExpect(jsonPath("$.results[0].flights").doesNotExist())
+            .andExpect(jsonPath("$.results[0].error.processingErrors[0].code").value(code))
+            .andExpect(jsonPath("$.results[1].flights[0].id").value("LH9742"));
+
+        verify(flightSearchService, times(1)).getFlightsFromSearch(any());
+    }
+
+    @SneakyThrows
+    @Test
+    void should_reject_batch_exceeding_maximum_queries() {
+        String query = "{ \"origin\": \"FRA\", \"destination\": \"MSP\" }";
+        String queries = String.join(",", Collections.nCopies(FlightBatchRequest.MAX_QUERIES + 1, query));
+
+        this.mockMvc.perform(
+                post("/flights/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{ \"queries\": [" + queries + "] }")
+            )
+            .andDo(log())
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for calendar parameters: {0}")
+    @CsvSource(
+        delimiter = ';',
+        value = {
+            "departureDay=2025-01-01;2025-01-01T00:00:00Z;2025-01-31T00:00:00Z;",
+            "departureDay=2025-01-01&days=1&flightType=direct;2025-01-01T00:00:00Z;2025-01-02T00:00:00Z;DIRECT",
+            "departureDay=2024-12-31&days=366;2024-12-31T00:00:00Z;2026-01-01T00:00:00Z;",
+        }
+    )
+    void should_retrieve_fare_calendar_for_requested_days(
+        final String query,
+        final Instant expectedFrom,
+        final Instant expectedTo,
+        final FlightType expectedFlightType
+    ) {
+        when(fareCalendarService.getFareCalendar(any()))
+            .thenReturn(List.of(new FareCalendarDay(LocalDate.parse("2025-01-01"), FlightType.DIRECT, 24573, "USD")));
+
+        this.mockMvc.perform(get("/flights/calendar?origin=FRA&destination=MSP&" + query))
+            .andDo(log())
+            .andExpect(status().isOk())
+            .andExpect(
+                content()
+                    .json("[{\"day\":\"2025-01-01\",\"flightType\":\"direct\",\"price\":24573,\"currency\":\"USD\"}]")
+            );
+
+        ArgumentCaptor<FlightSearchCriteria> criteria = ArgumentCaptor.forClass(FlightSearchCriteria.class);
+        verify(fareCalendarService).getFareCalendar(criteria.capture());
+        assertThat(criteria.getValue())
+            .returns("FRA", FlightSearchCriteria::origin)
+            .returns("MSP", FlightSearchCriteria::destination)
+            .returns(expectedFrom, FlightSearchCriteria::departureFrom)
+            .returns(expectedTo, FlightSearchCriteria::departureTo)
+            .returns(expectedFlightType, FlightSearchCriteria::flightType);
+        verifyNoInteractions(flightSearchService);
+    }
+
+    @SneakyThrows
+    @ParameterizedTest(name = "Scenario for calendar parameters: {0}")
+    @ValueSource(
+        strings = {
+            "origin=FRA&destination=MSP",
+            "origin=FRA&destination=MSP&departureDay=01.01.2025",
+            "origin=FRA&destination=MSP&departureDay=2025-01-01&days=0",
+            "origin=FRA&destination=MSP&departureDay=2025-01-01&days=367",
+            "origin=FRAN&destination=MSP&departureDay=2025-01-01",
+        }
+    )
+    void should_reject_invalid_calendar_parameters(final String query) {
+        this.mockMvc.perform(get("/flights/calendar?" + query)).andDo(log()).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(fareCalendarService);
+    }
+
+    private static FlightItem flight(final String id) {
+        return new FlightItem(
+            id,
+            "2025-01-01T08:00:00Z",
+            "2025-01-01T18:00:00Z",
+            "FRA",
+            "MSP",
+            "LH",
+            24573,
+            "USD",
+            FareClass.E,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    private static final class PreSerializedFlights extends AbstractList<FlightItem> implements PreSerializedJson {
+
+        private static final byte[] JSON = "[{\"id\":\"pre-serialized\"}]".getBytes(StandardCharsets.UTF_8);
+        private static final String ETAG = "\"pre-serialized\"";
+
+        private final List<FlightItem> flights;
+
+        private PreSerializedFlights(final FlightItem... flights) {
+            this.flights = List.of(flights);
+        }
+
+        @Override
+        public FlightItem get(final int index) {
+            return flights.get(index);
+        }
+
+        @Override
+        public int size() {
+            return flights.size();
+        }
+
+        @Override
+        public byte[] json(final ObjectMapper objectMapper) {
+            return JSON;
+        }
+
+        @Override
+        public String eTag() {
+            return ETAG;
+        }
     }
 
     @TestConfiguration
@@ -68,5 +616,10 @@ public class FlightSearchControllerTestIT {
         public HttpMessageNotReadableHandler httpMessageNotReadableHandler() {
             return new HttpMessageNotReadableHandler();
         }
+
+        @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        public Executor applicationTaskExecutor() {
+            return new SimpleAsyncTaskExecutor();
+        }
     }
 }
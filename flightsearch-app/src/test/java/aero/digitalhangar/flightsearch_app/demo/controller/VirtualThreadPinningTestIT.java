@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Drives concurrent searches over HTTP against the application running on virtual threads, through Tomcat, the
+ * Logbook filter, validation, error handling, the JSON logging of the {@code cloud} profile, the batch executor and
+ * the blocking calls to a remote inventory provider, and fails if any of them parks a virtual thread while it holds a
+ * monitor, i.e. pins its carrier thread.
+ */
+@ActiveProfiles("cloud")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "spring.threads.virtual.enabled=true", "flightsearch.search.providers.enabled=true" }
+)
+class VirtualThreadPinningTestIT {
+
+    private static final int REQUESTS = 400;
+
+    private static final String PARTNER_FLIGHTS =
+        """
+        [
+          {
+            "id": "UA1234",
+            "departureDateTime": "2025-01-01T08:00:00Z",
+            "arrivalDateTime": "2025-01-01T18:00:00Z",
+            "origin": "FRA",
+            "destination": "MSP",
+            "airlineCode": "UA",
+            "price": 24573,
+            "currency": "USD",
+            "fareClass": "Economy",
+            "flightType": "direct",
+            "viaFlightItems": []
+          }
+        ]""";
+
+    private static HttpServer upstream;
+    private static ExecutorService upstreamExecutor;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @SneakyThrows
+    @BeforeAll
+    static void startUpstream() {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/", exchange -> {
+            try (exchange) {
+                Thread.sleep(5); // slow enough to keep many outbound calls in flight
+                if (exchange.getRequestURI().getQuery().contains("origin=MUC")) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    byte[] body = PARTNER_FLIGHTS.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        upstreamExecutor = Executors.newFixedThreadPool(16);
+        upstream.setExecutor(upstreamExecutor);
+        upstream.start();
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.stop(0);
+        upstreamExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void partnerProvider(final DynamicPropertyRegistry registry) {
+        registry.add(
+            "flightsearch.search.providers.remote.partner",
+            () -> "http://localhost:" + upstream.getAddress().getPort()
+        );
+    }
+
+    @SneakyThrows
+    @Test
+    void should_not_pin_carrier_threads_while_serving_requests_on_virtual_threads() {
+        List<String> pinnedStacks = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event ->
+                pinnedStacks.add(
+                    event.getStackTrace() == null
+                        ? "unknown"
+                        : event
+                            .getStackTrace()
+                            .getFrames()
+                            .stream()
+                            .map(RecordedFrame::getMethod)
+                            .map(method -> method.getType().getName() + "." + method.getName())
+                            .toList()
+                            .toString()
+                )
+            );
+            recording.startAsync();
+
+            List<Integer> statuses;
+            try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Integer>> responses = IntStream
+                    .range(0, REQUESTS)
+                    .mapToObj(request -> requests.submit(() -> perform(request)))
+                    .toList();
+                statuses = responses.stream().map(VirtualThreadPinningTestIT::statusOf).toList();
+            }
+            recording.stop();
+
+            assertThat(statuses)
+                .containsExactlyElementsOf(IntStream.range(0, REQUESTS).mapToObj(this::expectedStatus).toList());
+        }
+
+        assertThat(pinnedStacks).isEmpty();
+    }
+
+    private int perform(final int request) throws Exception {
+        HttpRequest httpRequest = switch (request % 4) {
+            case 0 -> get("/flights?origin=FRA&destination=MSP");
+            case 1 -> get("/flights?origin=FR&destination=MSP");
+            case 2 -> get("/flights?origin=MUC&destination=MSP");
+            default -> HttpRequest
+                .newBuilder(uri("/flights/batch"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(
+                    HttpRequest.BodyPublishers.ofString(
+                        """
+                        {
+                          "queries": [
+                            { "origin": "FRA", "destination": "MSP" },
+                            { "origin": "MUC", "destination": "MSP" }
+                          ]
+                        }"""
+                    )
+                )
+                .build();
+        };
+
+        return httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(final String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + port + contextPath + path);
+    }
+
+    private int expectedStatus(final int request) {
+        return switch (request % 4) {
+            case 1 -> 400;
+            case 2 -> 404;
+            default -> 200;
+        };
+    }
+
+    @SneakyThrows
+    private static int statusOf(final Future<Integer> response) {
+        return response.get();
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import aero.digitalhangar.flightsearch_app.commons.web.PreSerializedJson;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.CatalogueDelta;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ConnectionBuilder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueLoader;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.SyntheticFlights;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.CachingFlightSearchService;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.IndexedFlightSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CachingFlightSearchServiceTest {
+
+    private final FlightCatalogueHolder catalogueHolder = new FlightCatalogueHolder(
+        new FlightCatalogueLoader("", SyntheticFlights.NONE)
+    );
+
+    private final FlightSearchService engine = new IndexedFlightSearchService(
+        catalogueHolder,
+        AirportGroups.NONE,
+        new ConnectionBuilder(Duration.ofMinutes(45), Duration.ofHours(12)),
+        false
+    );
+
+    private final AtomicInteger engineSearches = new AtomicInteger();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FlightSearchService cachingService(final int maximumSize, final Duration timeToLive) {
+        return cachingService(engine, maximumSize, timeToLive);
+    }
+
+    private FlightSearchService cachingService(
+        final FlightSearchService delegate,
+        final int maximumSize,
+        final Duration timeToLive
+    ) {
+        FlightSearchService countingEngine = criteria -> {
+            engineSearches.incrementAndGet();
+            return delegate.getFlightsFromSearch(criteria);
+        };
+        return new CachingFlightSearchService(countingEngine, catalogueHolder, meterRegistry, maximumSize, timeToLive);
+    }
+
+    private static FlightSearchCriteria criteria(final String origin, final String destination) {
+        return FlightSearchCriteria.builder().origin(origin).destination(destination).build();
+    }
+
+    private static FlightSearchCriteria criteria(
+        final String origin,
+        final String destination,
+        final Set<FareClass> fareClasses
+    ) {
+        return FlightSearchCriteria.builder().origin(origin).destination(destination).fareClasses(fareClasses).build();
+    }
+
+    private double gets(final String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} repeated as {2}-{3}")
+    @CsvSource({ "FRA,MSP,FRA,MSP", "fra,msp,FRA,MSP", "LAX,JFK,lax,Jfk" })
+    void should_serve_repeated_search_from_cache(
+        final String origin,
+        final String destination,
+        final String repeatedOrigin,
+        final String repeatedDestination
+    ) {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        List<FlightItem> flights = systemUnderTest.getFlightsFromSearch(criteria(origin, destination));
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria(repeatedOrigin, repeatedDestination)))
+            .isSameAs(flights)
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(engine.getFlightsFromSearch(criteria(origin, destination)));
+        assertThat(engineSearches).hasValue(1);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void should_cache_searches_without_flights() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(FlightsNotFoundException.class)
+                .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(criteria("FRA", "JFK")));
+        }
+        assertThat(engineSearches).hasValue(1);
+    }
+
+    @Test
+    void should_search_again_after_catalogue_reload() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+        catalogueHolder.reload();
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+
+        assertThat(engineSearches).hasValue(2);
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_drop_cached_searches_when_catalogue_is_published() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+        systemUnderTest.getFlightsFromSearch(criteria("LAX", "JFK"));
+        catalogueHolder.reload();
+
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isZero();
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void should_serialize_cached_result_once() throws Exception {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<FlightItem> flights = systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+
+        assertThat(flights).isInstanceOf(PreSerializedJson.class);
+        PreSerializedJson preSerialized = (PreSerializedJson) flights;
+        byte[] json = preSerialized.json(objectMapper);
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(engine.getFlightsFromSearch(criteria("FRA", "MSP"))));
+        assertThat(preSerialized.json(objectMapper)).isSameAs(json);
+    }
+
+    @Test
+    void should_tag_cached_result_by_query_and_catalogue_content() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        String eTag = eTag(systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP")));
+
+        assertThat(eTag).matches("\"[0-9a-f]{32}\"");
+        assertThat(eTag(systemUnderTest.getFlightsFromSearch(criteria("fra", "msp")))).isEqualTo(eTag);
+        assertThat(eTag(systemUnderTest.getFlightsFromSearch(criteria("LAX", "JFK")))).isNotEqualTo(eTag);
+        catalogueHolder.reload();
+        assertThat(eTag(systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP")))).isEqualTo(eTag);
+        catalogueHolder.apply(CatalogueDelta.delete("LH9742"));
+        assertThat(eTag(systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP")))).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void should_tag_alike_on_replicas_serving_the_same_flights() {
+        FlightCatalogueHolder replicaHolder = new FlightCatalogueHolder(
+            new FlightCatalogueLoader("", SyntheticFlights.NONE)
+        );
+        replicaHolder.reload();
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+        FlightSearchService replica = new CachingFlightSearchService(
+            engine,
+            replicaHolder,
+            new SimpleMeterRegistry(),
+            100,
+            Duration.ofMinutes(5)
+        );
+
+        assertThat(replicaHolder.current().version()).isNotEqualTo(catalogueHolder.current().version());
+        assertThat(replica.eTag(criteria("FRA", "MSP", EnumSet.of(FareClass.B, FareClass.E, FareClass.F))))
+            .isEqualTo(systemUnderTest.eTag(criteria("FRA", "MSP", Set.of(FareClass.F, FareClass.E, FareClass.B))))
+            .isNotEqualTo(systemUnderTest.eTag(criteria("FRA", "MSP", Set.of(FareClass.F, FareClass.E))));
+    }
+
+    @Test
+    void should_know_entity_tag_without_searching() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ofMinutes(5));
+
+        String eTag = systemUnderTest.eTag(criteria("fra", "msp")).orElseThrow();
+
+        assertThat(engineSearches).hasValue(0);
+        assertThat(eTag(systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP")))).isEqualTo(eTag);
+        catalogueHolder.apply(CatalogueDelta.delete("LH9742"));
+        assertThat(systemUnderTest.eTag(criteria("FRA", "MSP"))).isNotEmpty().isNotEqualTo(Optional.of(eTag));
+    }
+
+    private static String eTag(final List<FlightItem> flights) {
+        return ((PreSerializedJson) flights).eTag();
+    }
+
+    @Test
+    void should_search_again_after_time_to_live() {
+        FlightSearchService systemUnderTest = cachingService(100, Duration.ZERO);
+
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+
+        assertThat(engineSearches).hasValue(2);
+        assertThat(gets("hit")).isZero();
+    }
+
+    @Test
+    void should_evict_least_recently_used_search() {
+        FlightSearchService systemUnderTest = cachingService(1, Duration.ofMinutes(5));
+
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+        systemUnderTest.getFlightsFromSearch(criteria("LAX", "JFK"));
+        systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"));
+
+        assertThat(engineSearches).hasValue(3);
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void should_share_one_search_between_concurrent_callers() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        FlightSearchService systemUnderTest = cachingService(
+            criteria -> {
+                awaitQuietly(release);
+                return engine.getFlightsFromSearch(criteria);
+            },
+            100,
+            Duration.ofMinutes(5)
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<FlightItem>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP"))));
+            }
+
+            // the first caller searches, all others wait for its result
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.get("singleflight.coalesced").functionCounter().count() < callers - 1) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            List<FlightItem> flights = results.getFirst().get(10, TimeUnit.SECONDS);
+            for (Future<List<FlightItem>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(flights);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(engineSearches).hasValue(1);
+        assertThat(meterRegistry.get("singleflight.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void should_search_again_after_failed_search() {
+        FlightSearchService systemUnderTest = cachingService(
+            criteria -> {
+                throw new IllegalStateException("Catalogue not available");
+            },
+            100,
+            Duration.ofMinutes(5)
+        );
+
+        for (int i = 0; i < 2; i++) {
+            assertThatIllegalStateException()
+                .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(criteria("FRA", "MSP")))
+                .withMessage("Catalogue not available");
+        }
+        assertThat(engineSearches).hasValue(2);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
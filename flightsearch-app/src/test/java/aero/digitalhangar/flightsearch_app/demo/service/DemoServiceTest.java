@@ -64,4 +64,18 @@ class DemoServiceTest {
             .extracting(ServiceItem::id)
             .isEqualTo(serviceId);
     }
+
+    @ParameterizedTest(name = "Scenario for booking ID: {0}")
+    @ValueSource(strings = { "ABCDEF", "abcdef", "ABCDef", "abcDEF" })
+    void should_tag_services_of_booking_regardless_of_case(final String bookingId) {
+        assertThat(systemUnderTest.eTag(bookingId))
+            .hasValueSatisfying(eTag -> assertThat(eTag).matches("\"[0-9a-f]{32}\""))
+            .isEqualTo(systemUnderTest.eTag("ABCDEF"));
+    }
+
+    @ParameterizedTest(name = "Scenario for booking ID: {0}")
+    @ValueSource(strings = { "", "AAAAAA", "ABCDEG" })
+    void should_not_tag_services_of_unknown_booking(final String bookingId) {
+        assertThat(systemUnderTest.eTag(bookingId)).isEmpty();
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightProvidersUnavailableException;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.FanOutFlightSearchService;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.InventoryProviders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+class FanOutFlightSearchServiceTest {
+
+    private static final FlightSearchCriteria CRITERIA = FlightSearchCriteria
+        .builder()
+        .origin("FRA")
+        .destination("MSP")
+        .sortBy(FlightSortKey.PRICE)
+        .limit(3)
+        .build();
+
+    private static final String[] PROVIDER_NAMES = { "engine", "gds", "partner" };
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FlightSearchService fanOutService(
+        final Duration deadline,
+        final Map<String, FlightSearchService> providers
+    ) {
+        return new FanOutFlightSearchService(providers, deadline, runnable -> runnable, meterRegistry);
+    }
+
+    /**
+     * @return the given providers named {@code engine}, {@code gds} and {@code partner} in this order
+     */
+    private static Map<String, FlightSearchService> providers(final FlightSearchService... providers) {
+        Map<String, FlightSearchService> namedProviders = new LinkedHashMap<>();
+        for (int i = 0; i < providers.length; i++) {
+            namedProviders.put(PROVIDER_NAMES[i], providers[i]);
+        }
+        return namedProviders;
+    }
+
+    private static FlightItem flight(final String id, final int price) {
+        return flight(id, price, "2025-01-01T08:00:00Z");
+    }
+
+    private static FlightItem flight(final String id, final int price, final String departureDateTime) {
+        return new FlightItem(
+            id,
+            departureDateTime,
+            "2025-01-01T18:00:00Z",
+            "FRA",
+            "MSP",
+            "LH",
+            price,
+            "USD",
+            FareClass.E,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+
+    @SneakyThrows
+    private static String json(final List<FlightItem> flights) {
+        return new ObjectMapper().writeValueAsString(flights);
+    }
+
+    private double calls(final String provider, final String outcome) {
+        return meterRegistry
+            .get("flightsearch.providers.calls")
+            .tag("provider", provider)
+            .tag("outcome", outcome)
+            .counter()
+            .count();
+    }
+
+    @Test
+    void should_merge_flights_of_all_providers_in_search_order_once_per_id() {
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofSeconds(5),
+            providers(
+                criteria -> List.of(flight("LH1", 40_000), flight("LH2", 20_000)),
+                criteria -> List.of(flight("LH2", 10_000), flight("UA3", 30_000)),
+                criteria -> List.of(flight("UA3", 5_000), flight("AC4", 50_000))
+            )
+        );
+
+        assertThat(systemUnderTest.getFlightsFromSearch(CRITERIA))
+            .extracting(FlightItem::id, FlightItem::price)
+            .containsExactly(tuple("LH2", 20_000), tuple("UA3", 30_000), tuple("LH1", 40_000));
+    }
+
+    @Test
+    void should_call_providers_concurrently() {
+        CyclicBarrier allCalled = new CyclicBarrier(3);
+        FlightSearchService waitingForOthers = criteria -> {
+            try {
+                allCalled.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("providers were not called concurrently", e);
+            }
+            return List.of(flight("LH1", 10_000));
+        };
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofSeconds(10),
+            providers(waitingForOthers, waitingForOthers, waitingForOthers)
+        );
+
+        assertThat(systemUnderTest.getFlightsFromSearch(CRITERIA)).isNotEmpty();
+        assertThat(calls("engine", "found") + calls("gds", "found") + calls("partner", "found")).isEqualTo(3);
+    }
+
+    @Test
+    void should_answer_with_providers_answering_within_the_deadline() throws InterruptedException {
+        CountDownLatch slowProviderInterrupted = new CountDownLatch(1);
+        FlightSearchService slowProvider = criteria -> {
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                slowProviderInterrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return List.of(flight("UA3", 1_000));
+        };
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofMillis(200),
+            providers(
+                criteria -> List.of(flight("LH1", 40_000)),
+                slowProvider,
+                criteria -> {
+                    throw new IllegalStateException("partner failure");
+                }
+            )
+        );
+
+        long start = System.nanoTime();
+        List<FlightItem> flights = systemUnderTest.getFlightsFromSearch(CRITERIA);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(flights).extracting(FlightItem::id).containsExactly("LH1");
+        assertThat(slowProviderInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(calls("gds", "timed_out")).isEqualTo(1);
+        assertThat(calls("partner", "failed")).isEqualTo(1);
+    }
+
+    @Test
+    void should_throw_not_found_if_no_answering_provider_found_flights() {
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofSeconds(5),
+            providers(
+                criteria -> {
+                    throw new FlightsNotFoundException();
+                },
+                criteria -> {
+                    throw new IllegalStateException("partner failure");
+                }
+            )
+        );
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(CRITERIA));
+        assertThat(calls("engine", "not_found")).isEqualTo(1);
+    }
+
+    @Test
+    void should_throw_unavailable_if_no_provider_answered() {
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofMillis(100),
+            providers(
+                criteria -> {
+                    throw new IllegalStateException("engine failure");
+                },
+                criteria -> {
+                    try {
+                        Thread.sleep(Duration.ofSeconds(30));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of(flight("UA3", 1_000));
+                }
+            )
+        );
+
+        assertThatExceptionOfType(FlightProvidersUnavailableException.class)
+            .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(CRITERIA));
+    }
+
+    @Test
+    void should_stream_flights_of_remote_provider_page_by_page() {
+        List<FlightItem> partnerFlights = IntStream
+            .range(0, 120)
+            .mapToObj(i -> flight("UA%03d".formatted(i), 10_000 + i))
+            .toList();
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        MockRestServiceServer partner = MockRestServiceServer.bindTo(restClientBuilder).build();
+        partner
+            .expect(requestTo(startsWith("http://partner/api/flights?")))
+            .andExpect(queryParam("sort", "price"))
+            .andExpect(queryParam("limit", String.valueOf(FlightSearchCriteria.MAX_LIMIT)))
+            .andRespond(withSuccess(json(partnerFlights.subList(0, 100)), MediaType.APPLICATION_JSON));
+        partner
+            .expect(requestTo(startsWith("http://partner/api/flights?")))
+            .andExpect(queryParam("limit", "50"))
+            .andExpect(queryParam("cursor", FlightCursor.after(FlightSortKey.PRICE, partnerFlights.get(99)).encode()))
+            .andRespond(withSuccess(json(partnerFlights.subList(100, 120)), MediaType.APPLICATION_JSON));
+        FlightSearchService systemUnderTest = new FanOutFlightSearchService(
+            criteria -> List.of(flight("LH1", 5_000)),
+            new InventoryProviders(true, Map.of("partner", URI.create("http://partner/api"))),
+            restClientBuilder.build(),
+            runnable -> runnable,
+            meterRegistry,
+            5_000
+        );
+
+        List<FlightItem> flights = systemUnderTest
+            .streamFlightsFromSearch(CRITERIA.toBuilder().limit(150).build())
+            .toList();
+
+        partner.verify();
+        assertThat(flights).hasSize(121);
+        assertThat(flights.get(0).id()).isEqualTo("LH1");
+        assertThat(flights.subList(1, 121))
+            .extracting(FlightItem::id)
+            .containsExactlyElementsOf(partnerFlights.stream().map(FlightItem::id).toList());
+        assertThat(calls("partner", "found")).isEqualTo(1);
+    }
+
+    @Test
+    void should_leave_out_provider_answering_malformed_flights() {
+        FlightSearchService systemUnderTest = fanOutService(
+            Duration.ofSeconds(5),
+            providers(
+                criteria -> List.of(flight("LH1", 40_000)),
+                criteria -> List.of(flight("UA3", 1_000), flight("UA4", 2_000, "tomorrow morning"))
+            )
+        );
+
+        assertThat(systemUnderTest.getFlightsFromSearch(CRITERIA)).extracting(FlightItem::id).containsExactly("LH1");
+        assertThat(calls("gds", "failed")).isEqualTo(1);
+    }
+}
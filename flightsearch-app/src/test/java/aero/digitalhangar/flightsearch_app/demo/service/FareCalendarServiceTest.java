@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueLoader;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueSnapshot;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.SyntheticFlights;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.IndexedFareCalendarService;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FareCalendarServiceTest {
+
+    private static final AirportGroups AIRPORT_GROUPS = new AirportGroups(Map.of("NYC", List.of("JFK", "EWR")));
+
+    private FareCalendarService systemUnderTest;
+
+    @BeforeEach
+    void setUp(@TempDir final Path directory) {
+        Path snapshot = directory.resolve("flights.snapshot");
+        FlightCatalogueSnapshot.write(
+            FlightCatalogue.of(
+                List.of(
+                    fare("FC1", "FRA", "JFK", "2025-01-01T08:00:00Z", 300, "USD"),
+                    fare("FC2", "FRA", "EWR", "2025-01-01T10:00:00Z", 250, "USD"),
+                    fare("FC3", "FRA", "EWR", "2025-01-01T12:00:00Z", 200, "EUR"),
+                    fare("FC4", "FRA", "JFK", "2025-01-02T08:00:00Z", 400, "USD"),
+                    fare("FC5", "MUC", "JFK", "2025-01-01T09:00:00Z", 100, "USD")
+                )
+            ),
+            snapshot
+        );
+        systemUnderTest =
+            new IndexedFareCalendarService(
+                new FlightCatalogueHolder(new FlightCatalogueLoader(snapshot.toString(), SyntheticFlights.NONE)),
+                AIRPORT_GROUPS
+            );
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}")
+    @CsvSource(
+        {
+            "FRA,JFK,2025-01-01 300 USD;2025-01-02 400 USD",
+            "fra,jfk,2025-01-01 300 USD;2025-01-02 400 USD",
+            "FRA,NYC,2025-01-01 200 EUR;2025-01-01 250 USD;2025-01-02 400 USD",
+            "MUC,NYC,2025-01-01 100 USD",
+        }
+    )
+    void should_keep_cheapest_flight_per_day_and_currency_of_all_routes(
+        final String origin,
+        final String destination,
+        final String expectedCalendar
+    ) {
+        assertThat(systemUnderTest.getFareCalendar(criteria(origin, destination)))
+            .map(day -> day.day() + " " + day.price() + " " + day.currency())
+            .containsExactly(expectedCalendar.split(";"));
+    }
+
+    @Test
+    void should_throw_error_when_no_flight_departs_on_any_route() {
+        FlightSearchCriteria criteria = criteria("MUC", "EWR");
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.getFareCalendar(criteria));
+    }
+
+    private static FlightSearchCriteria criteria(final String origin, final String destination) {
+        return FlightSearchCriteria.builder().origin(origin).destination(destination).build();
+    }
+
+    private static FlightItem fare(
+        final String id,
+        final String origin,
+        final String destination,
+        final String departure,
+        final int price,
+        final String currency
+    ) {
+        return new FlightItem(
+            id,
+            departure,
+            Instant.parse(departure).plusSeconds(3600).toString(),
+            origin,
+            destination,
+            "LH",
+            price,
+            currency,
+            FareClass.E,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright (C) 2022 Lufthansa Group Digital Hangar. All rights reserved.
+ *
+ * This software is the confidential and proprietary information of Lufthansa Group Digital Hangar.
+ */
+package aero.digitalhangar.flightsearch_app.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import aero.digitalhangar.flightsearch_app.demo.catalogue.AirportGroups;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.ConnectionBuilder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogue;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueHolder;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueLoader;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.FlightCatalogueSnapshot;
+import aero.digitalhangar.flightsearch_app.demo.catalogue.SyntheticFlights;
+import aero.digitalhangar.flightsearch_app.demo.model.FareClass;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightCursor;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightItem;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSearchCriteria;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightSortKey;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightType;
+import aero.digitalhangar.flightsearch_app.demo.model.FlightsNotFoundException;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.IndexedFlightSearchService;
+import aero.digitalhangar.flightsearch_app.demo.service.impl.MockFlightSearchService;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FlightSearchServiceTest {
+
+    private static final AirportGroups AIRPORT_GROUPS = new AirportGroups(
+        Map.of("CAL", List.of("LAX", "SFO", "BOS"), "EAS", List.of("JFK", "SEA", "BOS", "MIA"))
+    );
+
+    private final FlightSearchService systemUnderTest = new IndexedFlightSearchService(
+        new FlightCatalogueHolder(new FlightCatalogueLoader("", SyntheticFlights.NONE)),
+        AIRPORT_GROUPS,
+        new ConnectionBuilder(Duration.ofMinutes(45), Duration.ofHours(12)),
+        false
+    );
+
+    private final FlightSearchService referenceService = new MockFlightSearchService(AIRPORT_GROUPS);
+
+    private static FlightSearchCriteria criteria(
+        final String origin,
+        final String destination,
+        final String departureDate,
+        final String returnDate,
+        final FlightType flightType
+    ) {
+        FlightSearchCriteria.FlightSearchCriteriaBuilder criteria = FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .arrival(returnDate == null ? null : Instant.parse(returnDate))
+            .flightType(flightType);
+
+        if (departureDate != null) {
+            criteria.departingAt(Instant.parse(departureDate));
+        }
+
+        return criteria.build();
+    }
+
+    private static FlightSearchCriteria criteria(
+        final String origin,
+        final String destination,
+        final String departureFrom,
+        final String departureTo
+    ) {
+        return FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .departingWithin(
+                departureFrom == null ? null : Instant.parse(departureFrom),
+                departureTo == null ? null : Instant.parse(departureTo)
+            )
+            .build();
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}, departure: {2}, arrival: {3}, type: {4}")
+    @CsvSource(
+        {
+            "FRA,MSP,,,",
+            "fra,msp,,,",
+            "FRA,MSP,,,SEGMENTED",
+            "FRA,MSP,,,DIRECT",
+            "FRA,MSP,2025-01-02T08:00:00Z,,",
+            "FRA,MSP,2025-01-02T09:00:00+01:00,,",
+            "FRA,MSP,,2025-01-02T11:00:00Z,",
+            "FRA,MSP,2025-01-03T08:00:00Z,2025-01-03T12:00:00Z,DIRECT",
+            "LAX,JFK,,,",
+            "CDG,LHR,2025-01-08T12:00:00Z,,",
+            "BOS,MIA,,,DIRECT",
+        }
+    )
+    void should_return_same_flights_as_reference_scan(
+        final String origin,
+        final String destination,
+        final String departureDate,
+        final String returnDate,
+        final FlightType flightType
+    ) {
+        FlightSearchCriteria criteria = criteria(origin, destination, departureDate, returnDate, flightType);
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .isNotEmpty()
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(referenceService.getFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} departing from {2} to {3}")
+    @CsvSource(
+        {
+            "FRA,MSP,2025-01-01T00:00:00Z,2025-01-02T00:00:00Z,'LH9742,LH7500,LH3671,LH5806'",
+            "FRA,MSP,2025-01-02T00:00:00Z,2025-01-02T11:00:00Z,'LH2093,LH6447'",
+            "FRA,MSP,2025-01-04T09:45:00Z,,'FL1004,FL1005'",
+            "FRA,MSP,,2025-01-01T11:00:00.5Z,'LH9742,LH7500'",
+            "LAX,JFK,2025-01-06T05:00:00Z,2025-01-06T07:00:00Z,'FL2006,FL1007'",
+        }
+    )
+    void should_return_flights_departing_within_window(
+        final String origin,
+        final String destination,
+        final String departureFrom,
+        final String departureTo,
+        final String expectedIds
+    ) {
+        FlightSearchCriteria criteria = criteria(origin, destination, departureFrom, departureTo);
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .extracting(FlightItem::id)
+            .containsExactly(expectedIds.split(","));
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(referenceService.getFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}")
+    @CsvSource({ "FRA,MSP", "LAX,JFK", "SFO,SEA" })
+    void should_return_at_most_ten_flights_sorted_by_departure(final String origin, final String destination) {
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria(origin, destination, null, null, null)))
+            .hasSizeLessThanOrEqualTo(10)
+            .extracting(FlightItem::departureDateTime)
+            .isSorted();
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} sorted by {2}, limit: {3}, type: {4}")
+    @CsvSource(
+        {
+            "FRA,MSP,DEPARTURE,1,",
+            "FRA,MSP,ARRIVAL,3,",
+            "FRA,MSP,PRICE,10,",
+            "FRA,MSP,DURATION,100,",
+            "FRA,MSP,PRICE,2,DIRECT",
+            "LAX,JFK,DURATION,5,",
+            "LAX,JFK,ARRIVAL,100,SEGMENTED",
+            "SFO,SEA,PRICE,1,",
+            "CAL,EAS,DEPARTURE,10,",
+            "cal,eas,ARRIVAL,3,DIRECT",
+            "CAL,EAS,PRICE,5,",
+            "CAL,EAS,DURATION,100,",
+            "CAL,JFK,PRICE,100,",
+        }
+    )
+    void should_return_same_top_flights_as_reference_scan(
+        final String origin,
+        final String destination,
+        final FlightSortKey sortBy,
+        final int limit,
+        final FlightType flightType
+    ) {
+        FlightSearchCriteria criteria = criteria(origin, destination, null, null, flightType)
+            .toBuilder()
+            .sortBy(sortBy)
+            .limit(limit)
+            .build();
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .isNotEmpty()
+            .hasSizeLessThanOrEqualTo(limit)
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(referenceService.getFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} sorted by {2}, fare classes: {3}, price: {4}-{5}")
+    @CsvSource(
+        {
+            "FRA,MSP,PRICE,'B,F',,",
+            "FRA,MSP,DEPARTURE,E,100000,120000",
+            "CAL,EAS,PRICE,,40000,50000",
+            "CAL,EAS,DURATION,'P,E',,45000",
+            "LAX,JFK,ARRIVAL,,,100000",
+            "CAL,EAS,DEPARTURE,F,,",
+        }
+    )
+    void should_filter_fare_classes_and_prices_before_selecting_flights(
+        final String origin,
+        final String destination,
+        final FlightSortKey sortBy,
+        final String fareClasses,
+        final Integer minPrice,
+        final Integer maxPrice
+    ) {
+        Set<FareClass> requested = fareClasses == null
+            ? null
+            : Arrays.stream(fareClasses.split(",")).map(FareClass::valueOf).collect(Collectors.toSet());
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .fareClasses(requested)
+            .minPrice(minPrice)
+            .maxPrice(maxPrice)
+            .sortBy(sortBy)
+            .limit(3)
+            .build();
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .isNotEmpty()
+            .allMatch(flight -> criteria.matchesFare(flight.fareClass(), flight.price()))
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyElementsOf(referenceService.getFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for FRA-MSP sorted by {0}")
+    @CsvSource(
+        {
+            "DEPARTURE,'LH9742,LH7500,LH3671,LH5806'",
+            "ARRIVAL,'LH7500,LH3671,LH9742,LH5806'",
+            "PRICE,'LH9742,LH6447,LH3671,LH2093'",
+            "DURATION,'LH3671,LH7500,LH5806,LH6447'",
+        }
+    )
+    void should_return_first_flights_in_requested_order(final FlightSortKey sortBy, final String expectedIds) {
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin("FRA")
+            .destination("MSP")
+            .sortBy(sortBy)
+            .limit(4)
+            .build();
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .extracting(FlightItem::id)
+            .containsExactly(expectedIds.split(","));
+    }
+
+    @ParameterizedTest(name = "Scenario for CAL-EAS sorted by {0}")
+    @CsvSource({ "DEPARTURE", "ARRIVAL", "PRICE", "DURATION" })
+    void should_merge_flights_of_all_routes_between_airport_groups(final FlightSortKey sortBy) {
+        List<FlightItem> routeFlights = new ArrayList<>();
+        for (String origin : List.of("LAX", "SFO", "BOS")) {
+            for (String destination : List.of("JFK", "SEA", "BOS", "MIA")) {
+                FlightSearchCriteria route = FlightSearchCriteria
+                    .builder()
+                    .origin(origin)
+                    .destination(destination)
+                    .sortBy(sortBy)
+                    .limit(FlightSearchCriteria.MAX_LIMIT)
+                    .build();
+                if (!origin.equals(destination)) {
+                    routeFlights.addAll(searchOrEmpty(route));
+                }
+            }
+        }
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin("CAL")
+            .destination("EAS")
+            .sortBy(sortBy)
+            .limit(FlightSearchCriteria.MAX_LIMIT)
+            .build();
+
+        assertThat(systemUnderTest.getFlightsFromSearch(criteria))
+            .extracting(FlightItem::id)
+            .containsExactlyInAnyOrderElementsOf(routeFlights.stream().map(FlightItem::id).toList())
+            .containsExactlyElementsOf(
+                referenceService.getFlightsFromSearch(criteria).stream().map(FlightItem::id).toList()
+            );
+    }
+
+    private List<FlightItem> searchOrEmpty(final FlightSearchCriteria criteria) {
+        try {
+            return systemUnderTest.getFlightsFromSearch(criteria);
+        } catch (FlightsNotFoundException e) {
+            return List.of();
+        }
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} sorted by {2}, page size: {3}")
+    @CsvSource(
+        {
+            "FRA,MSP,DEPARTURE,1",
+            "FRA,MSP,DEPARTURE,4",
+            "FRA,MSP,ARRIVAL,3",
+            "FRA,MSP,PRICE,2",
+            "FRA,MSP,DURATION,5",
+            "LAX,JFK,PRICE,1",
+            "SFO,SEA,DURATION,2",
+            "CAL,EAS,DEPARTURE,3",
+            "CAL,EAS,PRICE,4",
+        }
+    )
+    void should_page_through_all_flights_with_cursor(
+        final String origin,
+        final String destination,
+        final FlightSortKey sortBy,
+        final int pageSize
+    ) {
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .sortBy(sortBy)
+            .build();
+        List<FlightItem> allFlights = systemUnderTest.getFlightsFromSearch(
+            criteria.toBuilder().limit(FlightSearchCriteria.MAX_LIMIT).build()
+        );
+
+        for (FlightSearchService service : List.of(systemUnderTest, referenceService)) {
+            List<FlightItem> pagedFlights = new ArrayList<>();
+            List<FlightItem> page = service.getFlightsFromSearch(criteria.toBuilder().limit(pageSize).build());
+            pagedFlights.addAll(page);
+            while (page.size() == pageSize && pagedFlights.size() < allFlights.size()) {
+                FlightCursor cursor = FlightCursor.decode(FlightCursor.after(sortBy, page.getLast()).encode());
+                page = service.getFlightsFromSearch(criteria.toBuilder().limit(pageSize).after(cursor).build());
+                pagedFlights.addAll(page);
+            }
+
+            assertThat(pagedFlights)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(allFlights);
+        }
+    }
+
+    @ParameterizedTest(name = "Scenario for cursor after the last flight sorted by {0}")
+    @CsvSource({ "DEPARTURE", "PRICE" })
+    void should_throw_error_when_no_flight_follows_cursor(final FlightSortKey sortBy) {
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin("FRA")
+            .destination("MSP")
+            .sortBy(sortBy)
+            .limit(FlightSearchCriteria.MAX_LIMIT)
+            .build();
+        List<FlightItem> allFlights = systemUnderTest.getFlightsFromSearch(criteria);
+        FlightSearchCriteria lastPage = criteria
+            .toBuilder()
+            .after(FlightCursor.after(sortBy, allFlights.getLast()))
+            .build();
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(lastPage));
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> referenceService.getFlightsFromSearch(lastPage));
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1} sorted by {2}, limit: {3}")
+    @CsvSource({ "FRA,MSP,DEPARTURE,1", "FRA,MSP,DEPARTURE,10000", "FRA,MSP,PRICE,10000", "LAX,JFK,DURATION,3" })
+    void should_stream_same_flights_as_search(
+        final String origin,
+        final String destination,
+        final FlightSortKey sortBy,
+        final int limit
+    ) {
+        FlightSearchCriteria criteria = FlightSearchCriteria
+            .builder()
+            .origin(origin)
+            .destination(destination)
+            .sortBy(sortBy)
+            .limit(limit)
+            .build();
+
+        for (FlightSearchService service : List.of(systemUnderTest, referenceService)) {
+            assertThat(service.streamFlightsFromSearch(criteria))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(service.getFlightsFromSearch(criteria));
+        }
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}")
+    @CsvSource({ "FRA,JFK", "MSP,FRA" })
+    void should_throw_error_before_streaming_when_flights_cannot_be_found(
+        final String origin,
+        final String destination
+    ) {
+        FlightSearchCriteria criteria = criteria(origin, destination, null, null, null);
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.streamFlightsFromSearch(criteria));
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> referenceService.streamFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for {0}-{1}, departure: {2}, type: {3}")
+    @CsvSource(
+        {
+            "FRA,JFK,,",
+            "MSP,FRA,,",
+            "FRA,MSP,2025-01-02T08:00:01Z,",
+            "FRA,MSP,2025-01-02T08:00:00.5Z,",
+            "SFO,BOS,,DIRECT",
+            "LAX,JFK,2025-01-06T05:00:00Z,SEGMENTED",
+            ",MSP,,",
+        }
+    )
+    void should_throw_error_when_flights_cannot_be_found(
+        final String origin,
+        final String destination,
+        final String departureDate,
+        final FlightType flightType
+    ) {
+        FlightSearchCriteria criteria = criteria(origin, destination, departureDate, null, flightType);
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(criteria))
+            .extracting(FlightsNotFoundException::getLocalizedMessage)
+            .isEqualTo("Flight for provided parameters was not found");
+    }
+
+    @ParameterizedTest(name = "Scenario for window from {0} to {1}")
+    @CsvSource({ "2025-01-02T00:00:00Z,2025-01-01T00:00:00Z", "2025-01-12T00:00:00Z," })
+    void should_throw_error_when_no_flight_departs_within_window(final String departureFrom, final String departureTo) {
+        FlightSearchCriteria criteria = criteria("FRA", "MSP", departureFrom, departureTo);
+
+        assertThatExceptionOfType(FlightsNotFoundException.class)
+            .isThrownBy(() -> systemUnderTest.getFlightsFromSearch(criteria));
+    }
+
+    @ParameterizedTest(name = "Scenario for type {0}")
+    @CsvSource({ ",'FL1+FL2,FL3'", "SEGMENTED,FL1+FL2", "DIRECT,FL3" })
+    void should_merge_composed_connections_with_stored_flights(
+        final FlightType flightType,
+        final String expectedIds,
+        @TempDir final Path directory
+    ) {
+        Path snapshot = directory.resolve("flights.snapshot");
+        FlightCatalogueSnapshot.write(
+            FlightCatalogue.of(
+                List.of(
+                    direct("FL1", "FRA", "LHR", "2025-01-01T08:00:00Z", "2025-01-01T10:00:00Z"),
+                    direct("FL2", "LHR", "MSP", "2025-01-01T11:00:00Z", "2025-01-01T19:00:00Z"),
+                    direct("FL3", "FRA", "MSP", "2025-01-01T09:00:00Z", "2025-01-01T18:00:00Z")
+                )
+            ),
+            snapshot
+        );
+        FlightSearchService connectingService = new IndexedFlightSearchService(
+            new FlightCatalogueHolder(new FlightCatalogueLoader(snapshot.toString(), SyntheticFlights.NONE)),
+            AirportGroups.NONE,
+            new ConnectionBuilder(Duration.ofMinutes(45), Duration.ofHours(12)),
+            true
+        );
+
+        assertThat(connectingService.getFlightsFromSearch(criteria("FRA", "MSP", null, null, flightType)))
+            .extracting(FlightItem::id)
+            .containsExactly(expectedIds.split(","));
+    }
+
+    private static FlightItem direct(
+        final String id,
+        final String origin,
+        final String destination,
+        final String departure,
+        final String arrival
+    ) {
+        return new FlightItem(
+            id,
+            departure,
+            arrival,
+            origin,
+            destination,
+            "LH",
+            10000,
+            "USD",
+            FareClass.E,
+            FlightType.DIRECT,
+            new FlightItem[] {}
+        );
+    }
+}